@@ -0,0 +1,81 @@
+package com.nordigy.testrestapi.benchmark;
+
+import com.nordigy.testrestapi.TestRestApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Boots the application for benchmarks on a private in-memory database and fills it with synthetic users.
+ */
+public final class BenchmarkApplication {
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final LocalDate OLDEST = LocalDate.of(1950, 1, 1);
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Starts the application with {@code properties} ({@code key=value}) passed as command line arguments, so that
+     * they take precedence over {@code application.properties} and the profile files.
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        Map<String, String> arguments = new LinkedHashMap<>();
+        for (String property : properties) {
+            int separator = property.indexOf('=');
+            arguments.put(property.substring(0, separator), property.substring(separator + 1));
+        }
+        return new SpringApplicationBuilder(TestRestApiApplication.class)
+                // H2 would otherwise answer a repeated query from the previous result
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";OPTIMIZE_REUSE_RESULTS=FALSE",
+                        "logging.level.root=WARN", "logging.level.com.nordigy.testrestapi.benchmark=INFO")
+                .run(arguments.entrySet().stream()
+                        .map(argument -> "--" + argument.getKey() + "=" + argument.getValue())
+                        .toArray(String[]::new));
+    }
+
+    /**
+     * Inserts {@code count} users with ids above the ones the application hands out. Names are drawn from pools of
+     * 2000 first and 5000 last names ({@code F0}, {@code L0}, ...), birthdays from 1950 on, with a fixed seed.
+     */
+    public static void insertUsers(ConfigurableApplicationContext context, int count) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        Timestamp now = Timestamp.from(Instant.now());
+        for (long id = 1_000_000; id < 1_000_000 + count; id++) {
+            batch.add(new Object[] { id, "F" + random.nextInt(2000), "L" + random.nextInt(5000),
+                    "user" + id + "@example.com", Date.valueOf(OLDEST.plusDays(random.nextInt(25_000))), now });
+            if (batch.size() == BATCH_SIZE) {
+                insert(jdbcTemplate, batch);
+            }
+        }
+        insert(jdbcTemplate, batch);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO user (id, first_name, last_name, email, day_of_birth, version, last_modified_date)"
+                        + " VALUES (?, ?, ?, ?, ?, 0, ?)", batch);
+        batch.clear();
+    }
+
+    public static void dropIndexes(ConfigurableApplicationContext context, String... indexes) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Stream.of(indexes).forEach(index -> jdbcTemplate.execute("DROP INDEX IF EXISTS " + index));
+    }
+}
@@ -0,0 +1,53 @@
+package com.nordigy.testrestapi.benchmark;
+
+import com.nordigy.testrestapi.api.ClientRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a token from {@link ClientRateLimiter} for 4 threads: all on one client, spread over 10 000 clients, and over
+ * 100 000 clients with room for only 10 000, so that idle buckets are swept and the rest share one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class ClientRateLimiterBenchmark {
+
+    @Param({ "1", "10000", "100000" })
+    private int clients;
+
+    private ClientRateLimiter rateLimiter;
+    private String[] clientIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rateLimiter = new ClientRateLimiter(100, 200, 10_000);
+        clientIds = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            clientIds[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return rateLimiter.tryAcquire(clientIds[ThreadLocalRandom.current().nextInt(clients)]);
+    }
+}
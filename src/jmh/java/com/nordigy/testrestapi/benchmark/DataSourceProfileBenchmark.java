@@ -0,0 +1,98 @@
+package com.nordigy.testrestapi.benchmark;
+
+import com.nordigy.testrestapi.model.QUser;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Repository throughput on each datasource profile with 4 concurrent callers: reads by id and by last name, and
+ * inserts of 50 users in one transaction. File databases are created in a temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(4)
+@Fork(1)
+public class DataSourceProfileBenchmark {
+
+    private static final QUser user = QUser.user;
+    private static final int ROWS = 100_000;
+    private static final int BATCH = 50;
+
+    @Param({ "h2-mem", "h2-file", "sqlite" })
+    private String profile;
+
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private final AtomicLong nextEmail = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("users-benchmark");
+        context = BenchmarkApplication.start("spring.profiles.active=" + profile, "app.data-dir=" + dataDir);
+        BenchmarkApplication.insertUsers(context, ROWS);
+        userRepository = context.getBean(UserRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public Optional<User> findById() {
+        return userRepository.findById(1_000_000L + ThreadLocalRandom.current().nextInt(ROWS));
+    }
+
+    @Benchmark
+    public Page<User> findByLastName() {
+        return userRepository.findAll(user.lastName.eq("L" + ThreadLocalRandom.current().nextInt(5000)),
+                PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Iterable<User> insertBatch() {
+        long first = nextEmail.getAndAdd(BATCH);
+        return userRepository.saveAll(LongStream.range(first, first + BATCH)
+                .mapToObj(i -> User.builder()
+                        .firstName("Bench")
+                        .lastName("Insert")
+                        .email("insert" + i + "@example.com")
+                        .dayOfBirth(LocalDate.of(1990, 1, 1))
+                        .build())
+                .collect(Collectors.toList()));
+    }
+}
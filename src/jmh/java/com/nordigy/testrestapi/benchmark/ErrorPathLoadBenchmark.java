@@ -0,0 +1,91 @@
+package com.nordigy.testrestapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test over HTTP where every request is invalid: 8 clients send one kind of bad request as fast as the server
+ * answers it with {@code 400}. {@code validation} fails Bean Validation on {@code POST /api/users},
+ * {@code parameter} asks for an unknown field and {@code malformed} posts broken JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(8)
+@Fork(1)
+public class ErrorPathLoadBenchmark {
+
+    private static final String INVALID_USER =
+            "{\"firstName\":\"A\",\"lastName\":\"\",\"email\":\"mail\",\"dayOfBirth\":\"2100-01-01\"}";
+
+    @Param({ "validation", "parameter", "malformed" })
+    private String error;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI users = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/api/users");
+        switch (error) {
+            case "validation":
+                request = post(users, INVALID_USER);
+                break;
+            case "parameter":
+                request = HttpRequest.newBuilder(URI.create(users + "?fields=id,password")).build();
+                break;
+            case "malformed":
+                request = post(users, "{\"firstName\":");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown error " + error);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int invalidRequest() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 400) {
+            throw new IllegalStateException(error + " answered " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private static HttpRequest post(URI uri, String body) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
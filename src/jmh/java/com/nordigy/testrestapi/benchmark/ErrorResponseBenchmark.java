@@ -0,0 +1,116 @@
+package com.nordigy.testrestapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nordigy.testrestapi.api.ExceptionHandlerController;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.model.error.ErrorResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Building the body of a validation error response from binding errors and from constraint violations, and the whole
+ * error path of {@link ExceptionHandlerController} from exception to JSON for an invalid body and an unsupported
+ * content type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorResponseBenchmark {
+
+    private List<FieldError> fieldErrors;
+    private Set<ConstraintViolation<User>> constraintViolations;
+    private ExceptionHandlerController exceptionHandler;
+    private WebRequest request;
+    private ObjectMapper objectMapper;
+    private MethodArgumentNotValidException methodArgumentNotValid;
+    private HttpMediaTypeNotSupportedException mediaTypeNotSupported;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        fieldErrors = List.of(
+                new FieldError("user", "firstName", "A", false, null, null, "size must be between 2 and 30"),
+                new FieldError("user", "lastName", "", false, null, null, "must not be blank"),
+                new FieldError("user", "email", "mail", false, null, null, "must be a well-formed email address"),
+                new FieldError("user", "dayOfBirth", null, false, null, null, "must not be null"));
+        constraintViolations = Validation.buildDefaultValidatorFactory().getValidator().validate(User.builder()
+                .firstName("A")
+                .lastName("")
+                .email("mail")
+                .dayOfBirth(LocalDate.now().plusDays(1))
+                .build());
+
+        exceptionHandler = new ExceptionHandlerController(new SimpleMeterRegistry());
+        request = new ServletWebRequest(new MockHttpServletRequest("POST", "/api/users"));
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new User(), "user");
+        fieldErrors.forEach(bindingResult::addError);
+        methodArgumentNotValid = new MethodArgumentNotValidException(
+                new MethodParameter(ErrorResponseBenchmark.class.getMethod("setUp"), -1), bindingResult);
+        mediaTypeNotSupported = new HttpMediaTypeNotSupportedException(MediaType.TEXT_PLAIN, List.of(
+                MediaType.APPLICATION_JSON, MediaTypes.HAL_JSON, MediaType.parseMediaType("application/x-ndjson")));
+    }
+
+    @Benchmark
+    public ErrorResponse fieldErrors() {
+        return ErrorResponse.builder()
+                .status(BAD_REQUEST)
+                .message("Validation error")
+                .subErrors(fieldErrors)
+                .build();
+    }
+
+    @Benchmark
+    public ErrorResponse constraintViolations() {
+        return ErrorResponse.builder()
+                .status(BAD_REQUEST)
+                .message("Validation error")
+                .subErrors(constraintViolations)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] validationErrorResponse() throws Exception {
+        ResponseEntity<Object> response = exceptionHandler.handleException(methodArgumentNotValid, request);
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    @Benchmark
+    public byte[] mediaTypeNotSupportedResponse() throws Exception {
+        ResponseEntity<Object> response = exceptionHandler.handleException(mediaTypeNotSupported, request);
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+}
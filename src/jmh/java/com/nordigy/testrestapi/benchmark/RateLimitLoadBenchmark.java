@@ -0,0 +1,115 @@
+package com.nordigy.testrestapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test over HTTP: one noisy client sorts 100 000 users on 16 connections while a quiet one reads single users on
+ * 2 with a pause of {@value #QUIET_PAUSE_MILLIS} ms between requests, with the rate limit off and on (5 requests per
+ * second per client, 8 at once). The quiet client stays below its limit, so the score of {@code quiet} is its latency
+ * plus the pause. The status codes each client got and the latency of the quiet client alone are logged once per
+ * trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class RateLimitLoadBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitLoadBenchmark.class);
+
+    private static final long QUIET_PAUSE_MILLIS = 500;
+
+    @Param({ "off", "on" })
+    private String rateLimit;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUri;
+    private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final Queue<Long> quietLatencies = new ConcurrentLinkedQueue<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("app.rate-limit.enabled=" + "on".equals(rateLimit),
+                "app.rate-limit.client-header=X-Client-Id", "app.rate-limit.requests-per-second=5",
+                "app.rate-limit.burst=10", "app.rate-limit.max-concurrent-requests=8");
+        BenchmarkApplication.insertUsers(context, 100_000);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long[] latencies = quietLatencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        log.info("rate limit {}: {}, quiet p50 / p99, ms: {} / {}", rateLimit, new TreeMap<>(statuses),
+                percentile(latencies, 0.5), percentile(latencies, 0.99));
+        context.close();
+    }
+
+    @Benchmark
+    @Group("noisy")
+    @GroupThreads(16)
+    public int noisy() throws IOException, InterruptedException {
+        return get("noisy", "/api/users?sort=email,desc&size=50&page=" + ThreadLocalRandom.current().nextInt(100));
+    }
+
+    @Benchmark
+    @Group("noisy")
+    @GroupThreads(2)
+    public int quiet() throws IOException, InterruptedException {
+        Thread.sleep(QUIET_PAUSE_MILLIS);
+        long started = System.nanoTime();
+        int status = get("quiet", "/api/users/" + (1_000_000 + ThreadLocalRandom.current().nextInt(100_000)));
+        quietLatencies.add(System.nanoTime() - started);
+        return status;
+    }
+
+    private int get(String clientId, String path) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUri + path))
+                .header("X-Client-Id", clientId)
+                .build(), HttpResponse.BodyHandlers.discarding());
+        statuses.computeIfAbsent(clientId + " " + response.statusCode(), key -> new LongAdder()).increment();
+        return response.statusCode();
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return Double.NaN;
+        }
+        int index = Math.min(sortedNanos.length - 1, (int) Math.ceil(percentile * sortedNanos.length) - 1);
+        return Math.round(sortedNanos[Math.max(0, index)] / 100_000.0) / 10.0;
+    }
+}
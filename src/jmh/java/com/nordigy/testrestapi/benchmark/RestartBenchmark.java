@@ -0,0 +1,78 @@
+package com.nordigy.testrestapi.benchmark;
+
+import com.nordigy.testrestapi.TestRestApiApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup time of the application on a file database that already holds {@code rows} users. The database is filled
+ * once per trial, every iteration starts the application on it and closes it again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RestartBenchmark {
+
+    @Param({ "h2-file", "sqlite" })
+    private String profile;
+
+    @Param({ "1000", "1000000" })
+    private int rows;
+
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("users-restart");
+        try (ConfigurableApplicationContext context = start()) {
+            BenchmarkApplication.insertUsers(context, rows);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() {
+        context.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext restart() {
+        context = start();
+        return context;
+    }
+
+    private ConfigurableApplicationContext start() {
+        // BenchmarkApplication would replace the file database with a private in-memory one
+        return new SpringApplicationBuilder(TestRestApiApplication.class)
+                .profiles(profile)
+                .properties("server.port=0", "app.data-dir=" + dataDir, "logging.level.root=WARN")
+                .run();
+    }
+}
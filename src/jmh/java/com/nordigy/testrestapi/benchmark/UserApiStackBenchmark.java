@@ -0,0 +1,75 @@
+package com.nordigy.testrestapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test over HTTP of the same filtered page from the Spring Data REST resource ({@code stack=jdbc}) and from the
+ * R2DBC one of the {@code reactive} profile ({@code stack=r2dbc}), 64 clients against 16 Tomcat worker threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(64)
+@Fork(1)
+public class UserApiStackBenchmark {
+
+    @Param({ "jdbc", "r2dbc" })
+    private String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String usersUri;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String database = UUID.randomUUID().toString();
+        context = BenchmarkApplication.start("spring.profiles.active=reactive", "server.tomcat.threads.max=16",
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";OPTIMIZE_REUSE_RESULTS=FALSE",
+                "spring.r2dbc.url=r2dbc:h2:mem:///" + database);
+        BenchmarkApplication.insertUsers(context, 100_000);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        usersUri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + ("r2dbc".equals(stack) ? "/api/reactive/users" : "/api/users");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int findAll() throws IOException, InterruptedException {
+        URI uri = URI.create(usersUri + "?firstName=F" + ThreadLocalRandom.current().nextInt(2000) + "&size=20");
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(uri + " answered " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
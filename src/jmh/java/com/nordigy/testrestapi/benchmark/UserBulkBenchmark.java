@@ -0,0 +1,84 @@
+package com.nordigy.testrestapi.benchmark;
+
+import com.nordigy.testrestapi.model.QUser;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.UserRepository;
+import com.nordigy.testrestapi.service.UserBulkService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.rest.core.event.AfterSaveEvent;
+import org.springframework.data.rest.core.event.BeforeSaveEvent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renaming {@code users} users out of 100 000: one bulk update through {@link UserBulkService} against what a client
+ * does today, a read and a save with the Spring Data REST events per user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserBulkBenchmark {
+
+    private static final QUser user = QUser.user;
+    private static final long FIRST_ID = 1_000_000L;
+
+    @Param({ "100", "1000", "10000" })
+    private int users;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserBulkService userBulkService;
+    private ApplicationEventPublisher eventPublisher;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.insertUsers(context, 100_000);
+        userRepository = context.getBean(UserRepository.class);
+        userBulkService = context.getBean(UserBulkService.class);
+        eventPublisher = context;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long bulk() {
+        User changes = new User();
+        changes.setFirstName("Bulk" + next++);
+        return userBulkService.update(user.id.between(FIRST_ID, FIRST_ID + users - 1), changes);
+    }
+
+    @Benchmark
+    public long perUser() {
+        String firstName = "Single" + next++;
+        for (long id = FIRST_ID; id < FIRST_ID + users; id++) {
+            User found = userRepository.findById(id).orElseThrow();
+            found.setFirstName(firstName);
+            eventPublisher.publishEvent(new BeforeSaveEvent(found));
+            User saved = userRepository.save(found);
+            eventPublisher.publishEvent(new AfterSaveEvent(saved));
+        }
+        return users;
+    }
+}
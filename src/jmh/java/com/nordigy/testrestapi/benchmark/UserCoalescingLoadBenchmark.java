@@ -0,0 +1,89 @@
+package com.nordigy.testrestapi.benchmark;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thundering herd over HTTP: 48 clients request the same filtered page of {@code /api/users} (100 000 users, 16
+ * Tomcat worker threads), with and without coalescing of identical reads. Logs the share of coalesced reads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(48)
+public class UserCoalescingLoadBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCoalescingLoadBenchmark.class);
+
+    @Param({ "false", "true" })
+    private boolean coalescing;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("app.coalescing.enabled=" + coalescing, "server.tomcat.threads.max=16");
+        BenchmarkApplication.insertUsers(context, 100_000);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        page = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/api/users?firstName=F42&size=50");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (coalescing) {
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            double executed = reads(meterRegistry, "executed");
+            double coalesced = reads(meterRegistry, "coalesced");
+            double timedOut = reads(meterRegistry, "timed-out");
+            log.info("reads: {} executed, {} coalesced ({}%), {} of them timed out", (long) executed, (long) coalesced,
+                    Math.round(100 * coalesced / (executed + coalesced)), (long) timedOut);
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public int herd() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(page).build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(page + " answered " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private static double reads(MeterRegistry meterRegistry, String outcome) {
+        return meterRegistry.get("users.repository.reads").tag("outcome", outcome).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+}
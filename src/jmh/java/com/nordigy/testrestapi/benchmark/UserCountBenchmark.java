@@ -0,0 +1,93 @@
+package com.nordigy.testrestapi.benchmark;
+
+import com.nordigy.testrestapi.model.QUser;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.CountMode;
+import com.nordigy.testrestapi.repository.UserRepository;
+import com.querydsl.core.types.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A random one of the first 100 pages of 20 users out of 5 000 000 generated by {@code UserDataGenerator}: all of
+ * them, the about 25 000 with the rarest last name or the about 1 500 000 born in the last 40 years. The total is
+ * counted for every page as before ({@code counted}), taken from {@code UserCounter} ({@code cached}), capped
+ * ({@code estimate}) or not counted ({@code none}).
+ * <p>
+ * The users do not fit in the heap of an in-memory database, so they are kept in an H2 file in the temporary
+ * directory, generated by the first trial and reused by the others. Delete it to generate them again. The file uses
+ * the older page store of H2: the MVStore keeps the superseded pages of every seeding batch and grows by gigabytes
+ * a minute while the users are inserted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class UserCountBenchmark {
+
+    private static final QUser user = QUser.user;
+    private static final int USERS = 5_000_000;
+    private static final Path DATA_DIR = Path.of(System.getProperty("java.io.tmpdir"), "user-count-benchmark-" + USERS);
+
+    @Param({ "all", "lastName", "born" })
+    private String filter;
+
+    @Param({ "counted", "cached", "estimate", "none" })
+    private String strategy;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private Predicate predicate;
+    private CountMode mode;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] properties = { "spring.profiles.active=h2-file",
+                "spring.datasource.url=jdbc:h2:file:" + DATA_DIR + "/users;MV_STORE=FALSE;OPTIMIZE_REUSE_RESULTS=FALSE",
+                "app.seed.count=" + USERS, "app.seed.defer-indexes=false", "app.search.enabled=false" };
+        context = "counted".equals(strategy)
+                ? BenchmarkApplication.start(StringUtils.concatenateStringArrays(properties,
+                new String[] { "app.count.cache-ttl=0", "app.count.resync-interval=0" }))
+                : BenchmarkApplication.start(properties);
+        userRepository = context.getBean(UserRepository.class);
+        predicate = "lastName".equals(filter) ? user.lastName.eq("Li")
+                : "born".equals(filter) ? user.dayOfBirth.after(LocalDate.now().minusYears(40))
+                : null;
+        mode = "estimate".equals(strategy) ? CountMode.ESTIMATE
+                : "none".equals(strategy) ? CountMode.NONE
+                : CountMode.EXACT;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Slice<User> findAll() {
+        PageRequest page = PageRequest.of(ThreadLocalRandom.current().nextInt(100), 20);
+        return userRepository.findAll(predicate, page, mode);
+    }
+}
@@ -0,0 +1,84 @@
+package com.nordigy.testrestapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page of 100 users over HTTP as full entities ({@code view=full}), through the {@code summary} projection and as
+ * the {@code fields=id,email} sparse fieldset. The size of the response body is logged once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class UserFieldsBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(UserFieldsBenchmark.class);
+
+    private static final Map<String, String> QUERIES = Map.of(
+            "full", "",
+            "projection", "&projection=summary",
+            "fields", "&fields=id,email");
+
+    @Param({ "full", "projection", "fields" })
+    private String view;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String usersUri;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.insertUsers(context, 100_000);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        usersUri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/api/users?size=100&sort=id" + QUERIES.get(view) + "&page=";
+        log.info("{} response: {} bytes", view, fetch(0).length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] findAll() throws IOException, InterruptedException {
+        return fetch(ThreadLocalRandom.current().nextInt(1000));
+    }
+
+    private byte[] fetch(int page) throws IOException, InterruptedException {
+        URI uri = URI.create(usersUri + page);
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(uri + " answered " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,86 @@
+package com.nordigy.testrestapi.benchmark;
+
+import com.nordigy.testrestapi.model.QUser;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter and sort latency of the user collection queries with and without the indexes declared on {@link User}.
+ * Every call is what {@code GET /api/users?...} runs: a page of 20 plus the count query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserIndexBenchmark {
+
+    private static final QUser user = QUser.user;
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20);
+
+    @Param("1000000")
+    private int rows;
+
+    @Param({ "false", "true" })
+    private boolean indexed;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        if (!indexed) {
+            BenchmarkApplication.dropIndexes(context,
+                    User.LAST_NAME_FIRST_NAME_INDEX, User.FIRST_NAME_INDEX, User.DAY_OF_BIRTH_INDEX);
+        }
+        BenchmarkApplication.insertUsers(context, rows);
+        userRepository = context.getBean(UserRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<User> filterByLastNameAndFirstName() {
+        return userRepository.findAll(user.lastName.eq("L42").and(user.firstName.eq("F7")), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<User> filterByFirstName() {
+        return userRepository.findAll(user.firstName.eq("F7"), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<User> filterByDayOfBirth() {
+        return userRepository.findAll(user.dayOfBirth.eq(LocalDate.of(1980, 6, 15)), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<User> sortByLastNameAndFirstName() {
+        return userRepository.findAll(PageRequest.of(0, 20, Sort.by("lastName", "firstName")));
+    }
+}
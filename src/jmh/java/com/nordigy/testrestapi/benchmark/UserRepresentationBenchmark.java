@@ -0,0 +1,154 @@
+package com.nordigy.testrestapi.benchmark;
+
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedOutputStream;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.UserRepository;
+import com.nordigy.testrestapi.service.UserProtobufEncoder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.context.PersistentEntities;
+import org.springframework.data.rest.webmvc.PersistentEntityResource;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding of a page of 100 users in every representation of {@code /api/users}, without compression and with the
+ * gzip and brotli (quality 4) encoders of the compression filter. The size on the wire is reported as the {@code bytes}
+ * counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserRepresentationBenchmark {
+
+    private static final String BASE_URI = "http://localhost:8080/api/users";
+    private static final int PAGE_SIZE = 100;
+
+    @Param({ "json", "smile", "cbor", "protobuf" })
+    private String format;
+
+    @Param({ "identity", "gzip", "br" })
+    private String compression;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper halObjectMapper;
+    private JsonFactory factory;
+    private List<User> users;
+    private PagedModel<PersistentEntityResource> page;
+    private final Encoder.Parameters brotliParameters = new Encoder.Parameters().setQuality(4);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.insertUsers(context, PAGE_SIZE);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        halObjectMapper = context.getBean("halJacksonHttpMessageConverter", AbstractJackson2HttpMessageConverter.class)
+                .getObjectMapper();
+        factory = "smile".equals(format) ? new SmileFactory()
+                : "cbor".equals(format) ? new CBORFactory()
+                : halObjectMapper.getFactory();
+
+        users = context.getBean(UserRepository.class)
+                .findAll(PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Order.desc("id")))).getContent();
+        PersistentEntity<?, ?> entity = context.getBean(PersistentEntities.class).getRequiredPersistentEntity(User.class);
+        List<PersistentEntityResource> resources = users.stream()
+                .map(user -> PersistentEntityResource.build(user, entity)
+                        .withLink(Link.of(BASE_URI + "/" + user.getId()))
+                        .withLink(Link.of(BASE_URI + "/" + user.getId(), "user"))
+                        .build())
+                .collect(Collectors.toList());
+        page = PagedModel.of(resources, new PagedModel.PageMetadata(PAGE_SIZE, 0, 100_000),
+                Link.of(BASE_URI + "?page=0&size=100"),
+                Link.of(BASE_URI + "?page=1&size=100", IanaLinkRelations.NEXT),
+                Link.of("http://localhost:8080/api/profile/users", IanaLinkRelations.PROFILE));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] encode(Size size) throws IOException {
+        byte[] encoded = encode();
+        size.bytes = encoded.length;
+        return encoded;
+    }
+
+    private byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 * 1024);
+        try (OutputStream out = compress(bytes)) {
+            if ("protobuf".equals(format)) {
+                CodedOutputStream output = CodedOutputStream.newInstance(out);
+                UserProtobufEncoder.writePage(users, page.getMetadata(), output);
+                output.flush();
+            } else {
+                try (JsonGenerator generator = factory.createGenerator(out)) {
+                    halObjectMapper.writeValue(generator, page);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Size of the last encoded page.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+
+        public long bytes;
+    }
+
+    private OutputStream compress(OutputStream out) throws IOException {
+        switch (compression) {
+            case "gzip":
+                return new GZIPOutputStream(out, 8192);
+            case "br":
+                return new BrotliOutputStream(out, brotliParameters);
+            default:
+                return out;
+        }
+    }
+}
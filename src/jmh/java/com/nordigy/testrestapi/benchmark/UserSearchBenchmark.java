@@ -0,0 +1,107 @@
+package com.nordigy.testrestapi.benchmark;
+
+import com.nordigy.testrestapi.model.QUser;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.UserRepository;
+import com.nordigy.testrestapi.service.UserSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type-ahead queries on 1 000 000 users: {@link UserSearchIndex} against the case-insensitive {@code like} predicates
+ * it replaces. Queries are prefixes of 2 to 4 characters of a first name ({@code F123}), a last name, an email, or a
+ * first and a last name together.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class UserSearchBenchmark {
+
+    private static final QUser user = QUser.user;
+    private static final int ROWS = 1_000_000;
+    private static final int LIMIT = 10;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserSearchIndex searchIndex;
+    private String[] queries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.insertUsers(context, ROWS);
+        userRepository = context.getBean(UserRepository.class);
+        searchIndex = new UserSearchIndex(context.getBean(DataSource.class));
+        searchIndex.load();
+
+        Random random = new Random(7);
+        queries = new String[1000];
+        for (int i = 0; i < queries.length; i++) {
+            String first = "f" + random.nextInt(2000);
+            String last = "l" + random.nextInt(5000);
+            String email = "user" + (1_000_000 + random.nextInt(ROWS));
+            switch (i % 4) {
+                case 0:
+                    queries[i] = prefix(first, random);
+                    break;
+                case 1:
+                    queries[i] = prefix(last, random);
+                    break;
+                case 2:
+                    queries[i] = email.substring(0, 6 + random.nextInt(3));
+                    break;
+                default:
+                    queries[i] = first + " " + prefix(last, random);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Long> index() {
+        return searchIndex.search(query(), LIMIT);
+    }
+
+    @Benchmark
+    public Page<User> likePredicate() {
+        String query = query().split(" ")[0];
+        return userRepository.findAll(user.firstName.startsWithIgnoreCase(query)
+                        .or(user.lastName.startsWithIgnoreCase(query))
+                        .or(user.email.startsWithIgnoreCase(query)),
+                PageRequest.of(0, LIMIT));
+    }
+
+    private String query() {
+        return queries[ThreadLocalRandom.current().nextInt(queries.length)];
+    }
+
+    private static String prefix(String value, Random random) {
+        return value.substring(0, Math.min(value.length(), 2 + random.nextInt(3)));
+    }
+}
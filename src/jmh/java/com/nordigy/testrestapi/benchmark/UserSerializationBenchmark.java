@@ -0,0 +1,95 @@
+package com.nordigy.testrestapi.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.context.PersistentEntities;
+import org.springframework.data.rest.webmvc.PersistentEntityResource;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Jackson serialization of a user as plain JSON (the application object mapper) and of a HAL page of 20 users (the
+ * one Spring Data REST renders its responses with).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSerializationBenchmark {
+
+    private static final String BASE_URI = "http://localhost:8080/api/users";
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private ObjectMapper halObjectMapper;
+    private User user;
+    private PagedModel<PersistentEntityResource> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        // Spring Data REST resolves links against the current request, as it would inside a real one
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        objectMapper = context.getBean(ObjectMapper.class);
+        halObjectMapper = context.getBean("halJacksonHttpMessageConverter", AbstractJackson2HttpMessageConverter.class)
+                .getObjectMapper();
+
+        List<User> users = context.getBean(UserRepository.class).findAll(PageRequest.of(0, 20)).getContent();
+        user = users.get(0);
+        PersistentEntity<?, ?> entity = context.getBean(PersistentEntities.class).getRequiredPersistentEntity(User.class);
+        List<PersistentEntityResource> resources = users.stream()
+                .map(user -> PersistentEntityResource.build(user, entity)
+                        .withLink(Link.of(BASE_URI + "/" + user.getId()))
+                        .withLink(Link.of(BASE_URI + "/" + user.getId(), "user"))
+                        .build())
+                .collect(Collectors.toList());
+        page = PagedModel.of(resources, new PagedModel.PageMetadata(20, 0, users.size()),
+                Link.of(BASE_URI + "?page=0&size=20"),
+                Link.of(BASE_URI + "?page=1&size=20", IanaLinkRelations.NEXT),
+                Link.of("http://localhost:8080/api/profile/users", IanaLinkRelations.PROFILE));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] user() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] halPage() throws JsonProcessingException {
+        return halObjectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,101 @@
+package com.nordigy.testrestapi.benchmark;
+
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.rest.core.event.AfterCreateEvent;
+import org.springframework.data.rest.core.event.AfterSaveEvent;
+import org.springframework.data.rest.core.event.BeforeCreateEvent;
+import org.springframework.data.rest.core.event.BeforeSaveEvent;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation cost of a POST and a PUT to the users resource: the repository events Spring Data REST publishes around
+ * the write. {@code legacy} is the former setup, validating on both before and after events (plus once more on the
+ * JPA lifecycle, see {@link #validate()}); {@code single-pass} is the default one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserValidationBenchmark {
+
+    @Param({ "legacy", "single-pass" })
+    private String pipeline;
+
+    private ConfigurableApplicationContext context;
+    private Validator validator;
+    private User existingUser;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "legacy".equals(pipeline)
+                ? BenchmarkApplication.start("app.validation.events=beforeCreate,afterCreate,beforeSave,afterSave",
+                        "spring.jpa.properties.javax.persistence.validation.mode=callback")
+                : BenchmarkApplication.start();
+        validator = context.getBean(Validator.class);
+        existingUser = context.getBean(UserRepository.class).findAll().iterator().next();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User createEvents() {
+        User user = newUser();
+        context.publishEvent(new BeforeCreateEvent(user));
+        // as the insert would; after-create handlers such as the search index need it, and a bounded range keeps
+        // the index from growing over the run
+        user.setId(sequence % 10_000);
+        context.publishEvent(new AfterCreateEvent(user));
+        return user;
+    }
+
+    @Benchmark
+    public User saveEvents() {
+        User user = existingUser;
+        context.publishEvent(new BeforeSaveEvent(user));
+        context.publishEvent(new AfterSaveEvent(user));
+        return user;
+    }
+
+    /**
+     * One validation pass, which is also what the JPA pre-persist and pre-update callbacks cost in legacy mode.
+     */
+    @Benchmark
+    public Set<ConstraintViolation<User>> validate() {
+        return validator.validate(newUser());
+    }
+
+    private User newUser() {
+        return User.builder()
+                .firstName("Benchmark")
+                .lastName("User")
+                .email("benchmark" + sequence++ + "@example.com")
+                .dayOfBirth(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+}
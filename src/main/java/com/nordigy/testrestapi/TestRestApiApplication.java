@@ -2,8 +2,12 @@ package com.nordigy.testrestapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableJpaAuditing
 public class TestRestApiApplication {
 
     public static void main(String[] args) {
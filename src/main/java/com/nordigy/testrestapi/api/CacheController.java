@@ -0,0 +1,25 @@
+package com.nordigy.testrestapi.api;
+
+import com.nordigy.testrestapi.model.CacheStatistics;
+import com.nordigy.testrestapi.service.UserCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("${spring.data.rest.basePath}/cache")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class CacheController {
+
+    private final UserCache userCache;
+
+    @GetMapping
+    public Map<String, CacheStatistics> statistics() {
+        return userCache.statistics();
+    }
+}
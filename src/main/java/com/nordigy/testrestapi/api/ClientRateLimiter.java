@@ -0,0 +1,96 @@
+package com.nordigy.testrestapi.api;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket per client, kept as the time at which its next request is due (the generic cell rate algorithm): a
+ * bucket is a single {@link AtomicLong} updated with compare-and-set, and the buckets are spread over the bins of a
+ * {@link ConcurrentHashMap}, so neither one client nor different clients take a lock.
+ * <p>
+ * A bucket whose due time has passed is full, so it is dropped when the map reaches {@code maxClients}; a client seen
+ * again starts with a full bucket, as it would have anyway. While all tracked clients are active, new ones share a
+ * single bucket.
+ */
+public class ClientRateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final int maxClients;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong sharedBucket;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private volatile long lastSweep;
+
+    public ClientRateLimiter(double requestsPerSecond, int burst, int maxClients) {
+        if (requestsPerSecond <= 0 || burst < 1 || maxClients < 1) {
+            throw new IllegalArgumentException("Rate, burst and clients must be positive");
+        }
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        this.toleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.maxClients = maxClients;
+        this.sharedBucket = new AtomicLong(System.nanoTime());
+        this.lastSweep = System.nanoTime() - SWEEP_INTERVAL_NANOS;
+    }
+
+    /**
+     * Takes a token from the bucket of the client.
+     *
+     * @return {@code 0} if the request may proceed, otherwise the nanoseconds until the client has a token again
+     */
+    public long tryAcquire(String client) {
+        long now = System.nanoTime();
+        AtomicLong bucket = bucket(client, now);
+        while (true) {
+            long due = bucket.get();
+            long start = due - now > 0 ? due : now;
+            long wait = start - toleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(due, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Clients tracked with a bucket of their own.
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(String client, long now) {
+        AtomicLong bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients && !sweep(now)) {
+            return sharedBucket;
+        }
+        return buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+    }
+
+    /**
+     * Drops full buckets, at most once a second and by one thread at a time.
+     *
+     * @return whether there is room for another client
+     */
+    private boolean sweep(long now) {
+        if (now - lastSweep >= SWEEP_INTERVAL_NANOS && sweeping.compareAndSet(false, true)) {
+            try {
+                lastSweep = now;
+                buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+            } finally {
+                sweeping.set(false);
+            }
+        }
+        return buckets.size() < maxClients;
+    }
+}
@@ -0,0 +1,356 @@
+package com.nordigy.testrestapi.api;
+
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.MimeType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses responses with brotli or gzip, whichever the client accepts, brotli first. Only the configured mime
+ * types are compressed, only bodies of at least the minimum size, and never a response that already has a
+ * {@code Content-Encoding}.
+ * <p>
+ * The body is buffered until it reaches the minimum size, then the encoding is decided and the rest streams through
+ * the encoder, so exports are compressed without being held in memory. A flush before that is held back for
+ * compressible responses and passed through for the others, like event streams. Tomcat's own compression cannot do
+ * this: it applies its minimum size only to responses with a {@code Content-Length}, which JSON responses do not
+ * have.
+ * <p>
+ * A strong {@code ETag} of a compressed response is made weak, since it was computed for the uncompressed body.
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+    private static final String RESPONSE_ATTRIBUTE = CompressionFilter.class.getName() + ".RESPONSE";
+    private static final String BROTLI = "br";
+    private static final String GZIP = "gzip";
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final List<MimeType> mimeTypes;
+    private final int minResponseSize;
+    private final Encoder.Parameters brotliParameters;
+
+    /**
+     * @param brotliQuality quality of the brotli encoder, or a negative value to compress with gzip only
+     */
+    public CompressionFilter(List<String> mimeTypes, int minResponseSize, int brotliQuality) {
+        this.mimeTypes = mimeTypes.stream().map(MimeType::valueOf).collect(Collectors.toList());
+        this.minResponseSize = minResponseSize;
+        this.brotliParameters = brotliQuality < 0 ? null : new Encoder.Parameters().setQuality(brotliQuality);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // the response of an async request is finished on its last dispatch
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            chain.doFilter(request, response);
+            finish(request);
+            return;
+        }
+        Set<String> codings = acceptedCodings(request);
+        String coding = brotliParameters != null && codings.contains(BROTLI) ? BROTLI
+                : codings.contains(GZIP) ? GZIP
+                : null;
+        if (coding == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CompressingResponse compressingResponse = new CompressingResponse(response, coding);
+        request.setAttribute(RESPONSE_ATTRIBUTE, compressingResponse);
+        chain.doFilter(request, compressingResponse);
+        finish(request);
+    }
+
+    private static void finish(HttpServletRequest request) throws IOException {
+        CompressingResponse response = (CompressingResponse) request.getAttribute(RESPONSE_ATTRIBUTE);
+        if (response != null && !request.isAsyncStarted()) {
+            request.removeAttribute(RESPONSE_ATTRIBUTE);
+            response.finish();
+        }
+    }
+
+    /**
+     * The content codings of {@code Accept-Encoding}, leaving out the ones with {@code q=0}.
+     */
+    private static Set<String> acceptedCodings(HttpServletRequest request) {
+        Set<String> codings = new HashSet<>();
+        for (String value : Collections.list(request.getHeaders(HttpHeaders.ACCEPT_ENCODING))) {
+            for (String coding : StringUtils.tokenizeToStringArray(value, ",")) {
+                String[] parts = StringUtils.tokenizeToStringArray(coding, ";");
+                boolean refused = parts.length > 1 && parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+                if (parts.length > 0 && !refused) {
+                    codings.add(parts[0].toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return codings;
+    }
+
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final String coding;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        // the servlet stream or the encoder writing to it, once the encoding is decided
+        private OutputStream target;
+        private boolean compressing;
+        private long contentLength = -1;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CompressingResponse(HttpServletResponse response, String coding) {
+            super(response);
+            this.coding = coding;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            if (outputStream == null) {
+                outputStream = new CompressingServletOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                outputStream = new CompressingServletOutputStream();
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            } else if (outputStream != null) {
+                outputStream.flush();
+            }
+            if (target != null) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (target == null) {
+                buffer.reset();
+            }
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            if (target == null) {
+                buffer.reset();
+                contentLength = -1;
+            }
+            super.reset();
+        }
+
+        // the length of the uncompressed body is held back until it is clear the body stays uncompressed
+
+        @Override
+        public void setContentLength(int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (target == null) {
+                contentLength = length;
+            } else if (!compressing) {
+                super.setContentLengthLong(length);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            setHeader(name, String.valueOf(value));
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            addHeader(name, String.valueOf(value));
+        }
+
+        void write(byte[] bytes, int offset, int length) throws IOException {
+            if (target == null) {
+                if (buffer.size() + length < minResponseSize) {
+                    buffer.write(bytes, offset, length);
+                    return;
+                }
+                decide(true);
+            }
+            target.write(bytes, offset, length);
+        }
+
+        void flush() throws IOException {
+            if (target == null) {
+                if (isCompressible()) {
+                    return;
+                }
+                decide(false);
+            }
+            target.flush();
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                decide(false);
+            }
+            if (compressing) {
+                // writes the end of the compressed stream
+                target.close();
+            }
+        }
+
+        private void decide(boolean largeEnough) throws IOException {
+            boolean compressible = isCompressible();
+            if (compressible) {
+                addVary();
+            }
+            int status = getStatus();
+            compressing = largeEnough && compressible && !containsHeader(HttpHeaders.CONTENT_ENCODING)
+                    && status != HttpStatus.NO_CONTENT.value() && status != HttpStatus.NOT_MODIFIED.value();
+            if (compressing) {
+                super.setHeader(HttpHeaders.CONTENT_ENCODING, coding);
+                weakenETag();
+                target = BROTLI.equals(coding)
+                        ? new BrotliOutputStream(super.getOutputStream(), brotliParameters)
+                        // a flush of the response also flushes the encoder, for streamed responses
+                        : new GZIPOutputStream(super.getOutputStream(), GZIP_BUFFER_SIZE, true);
+            } else {
+                if (contentLength >= 0) {
+                    super.setContentLengthLong(contentLength);
+                }
+                target = super.getOutputStream();
+            }
+            buffer.writeTo(target);
+            buffer = null;
+        }
+
+        private boolean isCompressible() {
+            String contentType = getContentType();
+            if (contentType == null) {
+                return false;
+            }
+            MimeType mimeType = MimeType.valueOf(contentType);
+            return mimeTypes.stream().anyMatch(type -> type.isCompatibleWith(mimeType));
+        }
+
+        /**
+         * The compressed body is not byte for byte the one the tag was computed for, so a strong tag becomes weak.
+         * {@code If-None-Match} compares tags weakly and still matches it.
+         */
+        private void weakenETag() {
+            String eTag = getHeader(HttpHeaders.ETAG);
+            if (eTag != null && !eTag.startsWith("W/")) {
+                super.setHeader(HttpHeaders.ETAG, "W/" + eTag);
+            }
+        }
+
+        private void addVary() {
+            boolean present = getHeaders(HttpHeaders.VARY).stream()
+                    .flatMap(value -> Stream.of(StringUtils.tokenizeToStringArray(value, ",")))
+                    .anyMatch(value -> value.equals("*") || value.equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING));
+            if (!present) {
+                super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+        }
+
+        private final class CompressingServletOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                CompressingResponse.this.write(bytes, offset, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                CompressingResponse.this.flush();
+            }
+
+            @Override
+            public boolean isReady() {
+                try {
+                    return getResponse().getOutputStream().isReady();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                try {
+                    getResponse().getOutputStream().setWriteListener(writeListener);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
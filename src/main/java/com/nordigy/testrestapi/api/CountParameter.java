@@ -0,0 +1,36 @@
+package com.nordigy.testrestapi.api;
+
+import com.nordigy.testrestapi.exception.InvalidParameterException;
+import com.nordigy.testrestapi.repository.CountMode;
+
+/**
+ * The {@code count} parameter of the users collection: {@code exact} (or {@code true}), {@code estimate} or
+ * {@code false}, see {@link CountMode}.
+ */
+final class CountParameter {
+
+    static final String NAME = "count";
+
+    private CountParameter() {
+    }
+
+    /**
+     * Returns the mode named by the value of the parameter, {@code absent} when the request has none.
+     */
+    static CountMode parse(String value, CountMode absent) {
+        if (value == null) {
+            return absent;
+        }
+        switch (value) {
+            case "exact":
+            case "true":
+                return CountMode.EXACT;
+            case "estimate":
+                return CountMode.ESTIMATE;
+            case "false":
+                return CountMode.NONE;
+            default:
+                throw new InvalidParameterException(NAME, "Expected one of exact, estimate, false");
+        }
+    }
+}
@@ -1,6 +1,14 @@
 package com.nordigy.testrestapi.api;
 
+import com.nordigy.testrestapi.exception.BulkRequestRejectedException;
+import com.nordigy.testrestapi.exception.InvalidParameterException;
+import com.nordigy.testrestapi.exception.RateLimitExceededException;
+import com.nordigy.testrestapi.exception.SearchIndexNotReadyException;
+import com.nordigy.testrestapi.exception.UserVersionMismatchException;
 import com.nordigy.testrestapi.model.error.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
 import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,7 +19,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
-import org.springframework.util.MimeType;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.Errors;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
@@ -25,14 +32,20 @@ import org.springframework.web.servlet.NoHandlerFoundException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import javax.persistence.EntityNotFoundException;
-import java.util.stream.Collectors;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 import static com.nordigy.testrestapi.model.error.ErrorResponse.builder;
-import static java.lang.String.format;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
 import static org.springframework.http.HttpStatus.UNSUPPORTED_MEDIA_TYPE;
 
 @ControllerAdvice
@@ -40,13 +53,31 @@ public class ExceptionHandlerController extends ResponseEntityExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(ExceptionHandlerController.class);
 
+    /**
+     * Counter of error responses, tagged with the exception and the status.
+     */
+    public static final String ERRORS_METRIC = "api.errors";
+
+    /**
+     * Upper bound of distinct unsupported media type messages kept, against clients sending arbitrary content types.
+     */
+    private static final int MEDIA_TYPE_MESSAGES_LIMIT = 256;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, Map<HttpStatus, Counter>> errorCounters = new ConcurrentHashMap<>();
+    private final Map<List<Object>, String> mediaTypeMessages = new ConcurrentHashMap<>();
+
+    public ExceptionHandlerController(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Override
     protected ResponseEntity<Object> handleMissingServletRequestParameter(
             MissingServletRequestParameterException ex, HttpHeaders headers,
             HttpStatus status, WebRequest request) {
-        return buildResponseEntity(builder()
+        return buildResponseEntity(ex, builder()
                 .status(BAD_REQUEST)
-                .message(format("Parameter is missing: %s", ex.getParameterName()))
+                .message("Parameter is missing: " + ex.getParameterName())
                 .debugMessage(ex.getLocalizedMessage())
                 .build());
     }
@@ -56,7 +87,7 @@ public class ExceptionHandlerController extends ResponseEntityExceptionHandler {
             MethodArgumentNotValidException ex, HttpHeaders headers,
             HttpStatus status, WebRequest request) {
         BindingResult bindingResult = ex.getBindingResult();
-        return buildResponseEntity(
+        return buildResponseEntity(ex,
                 builder()
                         .status(BAD_REQUEST)
                         .message("Validation error")
@@ -69,7 +100,7 @@ public class ExceptionHandlerController extends ResponseEntityExceptionHandler {
     protected ResponseEntity<Object> handleHttpMessageNotWritable(
             HttpMessageNotWritableException ex, HttpHeaders headers,
             HttpStatus status, WebRequest request) {
-        return buildResponseEntity(builder()
+        return buildResponseEntity(ex, builder()
                 .status(INTERNAL_SERVER_ERROR)
                 .message("Failed to write JSON output")
                 .debugMessage(ex.getLocalizedMessage())
@@ -80,9 +111,9 @@ public class ExceptionHandlerController extends ResponseEntityExceptionHandler {
     protected ResponseEntity<Object> handleNoHandlerFoundException(
             NoHandlerFoundException ex, HttpHeaders headers,
             HttpStatus status, WebRequest request) {
-        return buildResponseEntity(builder()
+        return buildResponseEntity(ex, builder()
                 .status(BAD_REQUEST)
-                .message(format("Unsupported method %s with URL %s", ex.getHttpMethod(), ex.getRequestURL()))
+                .message("Unsupported method " + ex.getHttpMethod() + " with URL " + ex.getRequestURL())
                 .debugMessage(ex.getMessage())
                 .build());
     }
@@ -91,18 +122,16 @@ public class ExceptionHandlerController extends ResponseEntityExceptionHandler {
     protected ResponseEntity<Object> handleHttpMediaTypeNotSupported(
             HttpMediaTypeNotSupportedException ex, HttpHeaders headers,
             HttpStatus status, WebRequest request) {
-        String supportedTypes = ex.getSupportedMediaTypes().stream().map(MimeType::toString).collect(Collectors.joining(", "));
-        String message = format("%s media type is not supported. Supported media types: %s", ex.getContentType(), supportedTypes);
-        return buildResponseEntity(builder()
+        return buildResponseEntity(ex, builder()
                 .status(UNSUPPORTED_MEDIA_TYPE)
-                .message(message)
+                .message(mediaTypeNotSupportedMessage(ex))
                 .build());
     }
 
     @ExceptionHandler(javax.validation.ConstraintViolationException.class)
     protected ResponseEntity<Object> handleConstraintViolation(
             javax.validation.ConstraintViolationException ex) {
-        return buildResponseEntity(
+        return buildResponseEntity(ex,
                 builder()
                         .status(BAD_REQUEST)
                         .message("Validation error")
@@ -114,7 +143,7 @@ public class ExceptionHandlerController extends ResponseEntityExceptionHandler {
     protected ResponseEntity<Object> handleHttpMessageNotReadable(
             HttpMessageNotReadableException ex, HttpHeaders headers,
             HttpStatus status, WebRequest request) {
-        return buildResponseEntity(builder()
+        return buildResponseEntity(ex, builder()
                 .status(BAD_REQUEST)
                 .message("Wrong content-type of the request format. Expected content-type is application/json.")
                 .debugMessage(ex.getLocalizedMessage())
@@ -125,7 +154,7 @@ public class ExceptionHandlerController extends ResponseEntityExceptionHandler {
     @ExceptionHandler(NumberFormatException.class)
     protected ResponseEntity<Object> handleEntityNotFound(
             NumberFormatException ex) {
-        return buildResponseEntity(builder()
+        return buildResponseEntity(ex, builder()
                 .status(BAD_REQUEST)
                 .message(ex.getMessage())
                 .build());
@@ -134,7 +163,7 @@ public class ExceptionHandlerController extends ResponseEntityExceptionHandler {
     @ExceptionHandler(EntityNotFoundException.class)
     protected ResponseEntity<Object> handleEntityNotFound(
             EntityNotFoundException ex) {
-        return buildResponseEntity(builder()
+        return buildResponseEntity(ex, builder()
                 .status(NOT_FOUND)
                 .message(ex.getMessage())
                 .build());
@@ -144,7 +173,7 @@ public class ExceptionHandlerController extends ResponseEntityExceptionHandler {
     protected ResponseEntity<Object> handleEntityNotFound(
             RepositoryConstraintViolationException ex) {
         Errors errors = ex.getErrors();
-        return buildResponseEntity(builder()
+        return buildResponseEntity(ex, builder()
                 .status(BAD_REQUEST)
                 .message(ex.getMessage())
                 .subErrors(errors.getFieldErrors())
@@ -156,10 +185,20 @@ public class ExceptionHandlerController extends ResponseEntityExceptionHandler {
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     protected ResponseEntity<Object> handleMethodArgumentTypeMismatch(
             MethodArgumentTypeMismatchException ex, WebRequest request) {
-        return buildResponseEntity(builder()
+        return buildResponseEntity(ex, builder()
+                .status(BAD_REQUEST)
+                .message("The parameter '" + ex.getName() + "' of value '" + ex.getValue()
+                        + "' could not be converted to type '" + ex.getRequiredType().getSimpleName() + "'")
+                .debugMessage(ex.getMessage())
+                .build());
+    }
+
+    @ExceptionHandler(InvalidParameterException.class)
+    protected ResponseEntity<Object> handleInvalidParameter(
+            InvalidParameterException ex) {
+        return buildResponseEntity(ex, builder()
                 .status(BAD_REQUEST)
-                .message(format("The parameter '%s' of value '%s' could not be converted to type '%s'", ex.getName(), ex.getValue(),
-                        ex.getRequiredType().getSimpleName()))
+                .message("Invalid value of parameter '" + ex.getParameterName() + "'")
                 .debugMessage(ex.getMessage())
                 .build());
     }
@@ -168,21 +207,127 @@ public class ExceptionHandlerController extends ResponseEntityExceptionHandler {
     protected ResponseEntity<Object> handleDataIntegrityViolation(
             DataIntegrityViolationException ex, WebRequest request) {
         if (ex.getCause() instanceof ConstraintViolationException) {
-            return buildResponseEntity(builder()
+            return buildResponseEntity(ex, builder()
                     .status(CONFLICT)
                     .message("Database error")
                     .debugMessage(((ConstraintViolationException) ex.getCause()).getSQLException().getLocalizedMessage())
                     .build());
 
         }
-        return buildResponseEntity(builder()
+        if (ex.getCause() instanceof R2dbcDataIntegrityViolationException) {
+            return buildResponseEntity(ex, builder()
+                    .status(CONFLICT)
+                    .message("Database error")
+                    .debugMessage(ex.getCause().getLocalizedMessage())
+                    .build());
+        }
+        return buildResponseEntity(ex, builder()
                 .status(INTERNAL_SERVER_ERROR)
                 .message("Server error")
                 .debugMessage(ex.getLocalizedMessage())
                 .build());
     }
 
-    private ResponseEntity<Object> buildResponseEntity(ErrorResponse errorResponse) {
-        return new ResponseEntity<>(errorResponse, errorResponse.getStatus());
+    @ExceptionHandler(RejectedExecutionException.class)
+    protected ResponseEntity<Object> handleRejectedExecution(
+            RejectedExecutionException ex) {
+        return buildResponseEntity(ex, builder()
+                .status(SERVICE_UNAVAILABLE)
+                .message("Server is busy, try again later")
+                .build());
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    protected ResponseEntity<Object> handleRateLimitExceeded(
+            RateLimitExceededException ex) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return buildResponseEntity(ex, builder()
+                .status(TOO_MANY_REQUESTS)
+                .message("Too many requests, try again later")
+                .debugMessage(ex.getMessage())
+                .build(), headers);
+    }
+
+    @ExceptionHandler(BulkRequestRejectedException.class)
+    protected ResponseEntity<Object> handleBulkRequestRejected(
+            BulkRequestRejectedException ex) {
+        return buildResponseEntity(ex, builder()
+                .status(BAD_REQUEST)
+                .message(ex.getMessage())
+                .build());
+    }
+
+    @ExceptionHandler(UserVersionMismatchException.class)
+    protected ResponseEntity<Object> handleUserVersionMismatch(
+            UserVersionMismatchException ex) {
+        return buildResponseEntity(ex, builder()
+                .status(PRECONDITION_FAILED)
+                .message("The user was changed in the meantime")
+                .debugMessage(ex.getMessage())
+                .build());
+    }
+
+    @ExceptionHandler(SearchIndexNotReadyException.class)
+    protected ResponseEntity<Object> handleSearchIndexNotReady(
+            SearchIndexNotReadyException ex) {
+        return buildResponseEntity(ex, builder()
+                .status(SERVICE_UNAVAILABLE)
+                .message("Search is not available yet, try again later")
+                .debugMessage(ex.getMessage())
+                .build());
+    }
+
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(
+            Exception ex, Object body, HttpHeaders headers,
+            HttpStatus status, WebRequest request) {
+        countError(ex, status);
+        return super.handleExceptionInternal(ex, body, headers, status, request);
+    }
+
+    private ResponseEntity<Object> buildResponseEntity(Exception ex, ErrorResponse errorResponse) {
+        return buildResponseEntity(ex, errorResponse, null);
+    }
+
+    private ResponseEntity<Object> buildResponseEntity(Exception ex, ErrorResponse errorResponse, HttpHeaders headers) {
+        countError(ex, errorResponse.getStatus());
+        return new ResponseEntity<>(errorResponse, headers, errorResponse.getStatus());
+    }
+
+    /**
+     * The message depends only on the content type and on the types the handler supports, so it is joined once per
+     * combination.
+     */
+    private String mediaTypeNotSupportedMessage(HttpMediaTypeNotSupportedException ex) {
+        List<Object> key = Arrays.asList(ex.getContentType(), ex.getSupportedMediaTypes());
+        String message = mediaTypeMessages.get(key);
+        if (message == null) {
+            StringBuilder builder = new StringBuilder()
+                    .append(ex.getContentType())
+                    .append(" media type is not supported. Supported media types: ");
+            for (int i = 0; i < ex.getSupportedMediaTypes().size(); i++) {
+                builder.append(i == 0 ? "" : ", ").append(ex.getSupportedMediaTypes().get(i));
+            }
+            message = builder.toString();
+            if (mediaTypeMessages.size() < MEDIA_TYPE_MESSAGES_LIMIT) {
+                mediaTypeMessages.put(key, message);
+            }
+        }
+        return message;
+    }
+
+    private void countError(Exception ex, HttpStatus status) {
+        Map<HttpStatus, Counter> counters = errorCounters.get(ex.getClass());
+        if (counters == null) {
+            counters = errorCounters.computeIfAbsent(ex.getClass(), type -> new ConcurrentHashMap<>());
+        }
+        Counter counter = counters.get(status);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(status, key -> meterRegistry.counter(ERRORS_METRIC,
+                    "exception", ex.getClass().getSimpleName(),
+                    "status", String.valueOf(key.value())));
+        }
+        counter.increment();
     }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.nordigy.testrestapi.api;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes responses in a binary Jackson format such as Smile or CBOR with the serializers of a JSON
+ * {@link ObjectMapper}: only the generator comes from the binary {@link JsonFactory}. So the binary representation
+ * has the same structure as the JSON one, including the HAL links and embedded resources when the mapper is the one
+ * Spring Data REST renders HAL with. Requests in these formats are not read.
+ */
+public class JacksonBinaryHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final ObjectMapper objectMapper;
+    private final JsonFactory factory;
+
+    public JacksonBinaryHttpMessageConverter(ObjectMapper objectMapper, JsonFactory factory, MediaType mediaType) {
+        super(mediaType);
+        this.objectMapper = objectMapper;
+        this.factory = factory.copy().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return objectMapper.canSerialize(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading " + getSupportedMediaTypes() + " is not supported",
+                inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = factory.createGenerator(outputMessage.getBody())) {
+            objectMapper.writeValue(generator, value);
+        }
+    }
+}
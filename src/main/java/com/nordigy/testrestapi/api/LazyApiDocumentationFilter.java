@@ -0,0 +1,42 @@
+package com.nordigy.testrestapi.api;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import springfox.documentation.spring.web.plugins.DocumentationPluginsBootstrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Builds the API documentation on the first request to it when Springfox does not build it at startup
+ * ({@code springfox.documentation.auto-startup=false}). Requests that arrive during the scan wait for it instead of
+ * getting empty documentation.
+ */
+public class LazyApiDocumentationFilter extends OncePerRequestFilter {
+
+    private final DocumentationPluginsBootstrapper bootstrapper;
+    private volatile boolean documented;
+
+    public LazyApiDocumentationFilter(DocumentationPluginsBootstrapper bootstrapper) {
+        this.bootstrapper = bootstrapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!documented) {
+            document();
+        }
+        chain.doFilter(request, response);
+    }
+
+    private synchronized void document() {
+        // the bootstrapper reports itself running as soon as the scan starts, not when it is done
+        if (!documented) {
+            bootstrapper.start();
+            documented = true;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.nordigy.testrestapi.api;
+
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lets the Spring Data REST handlers be answered in additional media types. Handlers without an explicit
+ * {@code produces} are limited by Spring Data REST to HAL and JSON, so any other {@code Accept} would get 406 before
+ * the message converters are asked.
+ */
+public class ProducibleMediaTypesInterceptor implements HandlerInterceptor {
+
+    private final List<MediaType> mediaTypes;
+
+    public ProducibleMediaTypesInterceptor(List<MediaType> mediaTypes) {
+        this.mediaTypes = mediaTypes;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        @SuppressWarnings("unchecked")
+        Set<MediaType> producible = (Set<MediaType>) request.getAttribute(
+                HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+        if (producible != null && producible.contains(MediaTypes.HAL_JSON)) {
+            Set<MediaType> extended = new LinkedHashSet<>(producible);
+            extended.addAll(mediaTypes);
+            request.setAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, extended);
+        }
+        return true;
+    }
+}
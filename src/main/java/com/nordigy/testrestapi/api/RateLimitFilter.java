@@ -0,0 +1,131 @@
+package com.nordigy.testrestapi.api;
+
+import com.nordigy.testrestapi.exception.ConcurrencyLimitExceededException;
+import com.nordigy.testrestapi.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Admits a request to the users API only while its client has tokens in {@link ClientRateLimiter} and fewer than
+ * {@code maxConcurrentRequests} requests are being served; otherwise it is answered right away with {@code 429} or
+ * {@code 503} through {@link ExceptionHandlerController}. A request that goes async keeps its slot until it completes,
+ * except on the streaming paths: those stay open for long and limit their number themselves, so they are only rate
+ * limited.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Counter of rejected requests, tagged with the reason: {@code rate-limit} or {@code concurrency}.
+     */
+    public static final String REJECTED_METRIC = "users.api.rejected";
+
+    /**
+     * Client ids longer than this are not trusted and the remote address is used instead.
+     */
+    private static final int MAX_CLIENT_ID_LENGTH = 64;
+
+    private final ClientRateLimiter rateLimiter;
+    private final int maxConcurrentRequests;
+    private final Semaphore concurrency;
+    private final String clientHeader;
+    private final Set<String> streamingPaths;
+    private final Supplier<HandlerExceptionResolver> exceptionResolver;
+    private final Counter rateLimited;
+    private final Counter shed;
+
+    public RateLimitFilter(ClientRateLimiter rateLimiter, int maxConcurrentRequests, String clientHeader,
+                           Set<String> streamingPaths, MeterRegistry meterRegistry,
+                           Supplier<HandlerExceptionResolver> exceptionResolver) {
+        this.rateLimiter = rateLimiter;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.concurrency = new Semaphore(maxConcurrentRequests);
+        this.clientHeader = clientHeader;
+        this.streamingPaths = streamingPaths;
+        this.exceptionResolver = exceptionResolver;
+        this.rateLimited = meterRegistry.counter(REJECTED_METRIC, "reason", "rate-limit");
+        this.shed = meterRegistry.counter(REJECTED_METRIC, "reason", "concurrency");
+        Gauge.builder("users.api.in-flight", concurrency, permits -> maxConcurrentRequests - permits.availablePermits())
+                .description("Users API requests being served")
+                .register(meterRegistry);
+        Gauge.builder("users.api.rate-limit.clients", rateLimiter, ClientRateLimiter::size)
+                .description("Clients with a token bucket of their own")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long waitNanos = rateLimiter.tryAcquire(clientId(request));
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+            exceptionResolver.get().resolveException(request, response, null,
+                    new RateLimitExceededException(retryAfterSeconds));
+            return;
+        }
+        if (streamingPaths.contains(request.getRequestURI().substring(request.getContextPath().length()))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!concurrency.tryAcquire()) {
+            shed.increment();
+            exceptionResolver.get().resolveException(request, response, null,
+                    new ConcurrencyLimitExceededException(maxConcurrentRequests));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+            } else {
+                concurrency.release();
+            }
+        }
+    }
+
+    private String clientId(HttpServletRequest request) {
+        if (clientHeader != null) {
+            String clientId = request.getHeader(clientHeader);
+            if (clientId != null && !clientId.isEmpty() && clientId.length() <= MAX_CLIENT_ID_LENGTH) {
+                return clientId;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private class ReleaseOnComplete implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            concurrency.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
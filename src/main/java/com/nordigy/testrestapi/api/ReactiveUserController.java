@@ -0,0 +1,180 @@
+package com.nordigy.testrestapi.api;
+
+import com.nordigy.testrestapi.exception.InvalidParameterException;
+import com.nordigy.testrestapi.exception.UserVersionMismatchException;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.model.UserPage;
+import com.nordigy.testrestapi.repository.ReactiveUserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.rest.core.event.AfterCreateEvent;
+import org.springframework.data.rest.core.event.AfterDeleteEvent;
+import org.springframework.data.rest.core.event.AfterSaveEvent;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import javax.persistence.EntityNotFoundException;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The users resource of Spring Data REST served over R2DBC: requests do not hold a thread while they wait for the
+ * database. Enabled by the {@code reactive} profile; errors are rendered by {@link ExceptionHandlerController}.
+ * <p>
+ * Writes are announced with the same {@link AfterCreateEvent}, {@link AfterSaveEvent} and {@link AfterDeleteEvent}
+ * Spring Data REST sends, so that the caches, the counter, the search index and the change feed follow.
+ * <p>
+ * Users carry the same {@code ETag} as in Spring Data REST, their version, and a {@code PUT} with {@code If-Match}
+ * only replaces the user at that version, otherwise answers {@code 412}. Unlike Spring Data REST, a {@code PUT} to an
+ * unknown id answers {@code 404} instead of creating a user: ids come from the sequence and cannot be chosen.
+ */
+@RestController
+@RequestMapping("${spring.data.rest.basePath}/reactive/users")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveUserController {
+
+    private final ReactiveUserRepository reactiveUserRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<User>> findById(@PathVariable long id) {
+        return reactiveUserRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> notFound(id)))
+                .map(user -> ResponseEntity.ok().eTag(eTag(user)).body(user));
+    }
+
+    @GetMapping
+    public Mono<UserPage> findAll(@RequestParam(required = false) String firstName,
+                                  @RequestParam(required = false) String lastName,
+                                  @RequestParam(required = false) String email,
+                                  @RequestParam(required = false)
+                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dayOfBirth,
+                                  Pageable pageable) {
+        pageable.getSort().forEach(order -> {
+            if (!ReactiveUserRepository.COLUMNS.containsKey(order.getProperty())) {
+                throw new InvalidParameterException("sort",
+                        "Users cannot be sorted by '" + order.getProperty() + "'");
+            }
+        });
+        Map<String, Object> filter = new LinkedHashMap<>();
+        putIfPresent(filter, "firstName", firstName);
+        putIfPresent(filter, "lastName", lastName);
+        putIfPresent(filter, "email", email);
+        putIfPresent(filter, "dayOfBirth", dayOfBirth);
+        return reactiveUserRepository.findAll(filter, pageable).map(UserPage::of);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<User>> create(@RequestBody User user) {
+        validate(user);
+        // the request is only at hand on the thread it came in on
+        UriComponentsBuilder location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}");
+        return reactiveUserRepository.insert(user)
+                .doOnNext(created -> eventPublisher.publishEvent(new AfterCreateEvent(created)))
+                .map(created -> ResponseEntity
+                        .created(location.buildAndExpand(created.getId()).toUri())
+                        .eTag(eTag(created))
+                        .body(created));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<User>> update(@PathVariable long id, @RequestBody User user,
+                                             @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+                                             String ifMatch) {
+        validate(user);
+        user.setId(id);
+        Long version = version(id, ifMatch);
+        return reactiveUserRepository.update(user, version)
+                .doOnNext(updated -> eventPublisher.publishEvent(new AfterSaveEvent(updated)))
+                .switchIfEmpty(Mono.defer(() -> notUpdated(id, version)))
+                .map(updated -> ResponseEntity.ok().eTag(eTag(updated)).body(updated));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable long id) {
+        return reactiveUserRepository.deleteById(id)
+                .flatMap(deleted -> {
+                    if (!deleted) {
+                        return Mono.error(notFound(id));
+                    }
+                    eventPublisher.publishEvent(new AfterDeleteEvent(User.builder().id(id).build()));
+                    return Mono.just(ResponseEntity.status(HttpStatus.NO_CONTENT).<Void>build());
+                });
+    }
+
+    /**
+     * The error for an update that changed nothing: there is no such user or it is at another version.
+     */
+    private Mono<User> notUpdated(long id, Long version) {
+        if (version == null) {
+            return Mono.error(notFound(id));
+        }
+        return reactiveUserRepository.findById(id)
+                .flatMap(current -> Mono.<User>error(new UserVersionMismatchException("User " + id
+                        + " is at version " + current.getVersion() + ", not " + version)))
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
+    }
+
+    private void validate(User user) {
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    private static String eTag(User user) {
+        return "\"" + user.getVersion() + "\"";
+    }
+
+    /**
+     * The version an {@code If-Match} header asks for, {@code null} without one or for {@code *}.
+     */
+    private static Long version(long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException ex) {
+            throw new UserVersionMismatchException("If-Match " + ifMatch + " names no version of user " + id);
+        }
+    }
+
+    private static void putIfPresent(Map<String, Object> filter, String property, Object value) {
+        if (value != null) {
+            filter.put(property, value);
+        }
+    }
+
+    private static EntityNotFoundException notFound(long id) {
+        return new EntityNotFoundException("User " + id + " not found");
+    }
+}
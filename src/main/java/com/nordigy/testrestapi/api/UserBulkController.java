@@ -0,0 +1,54 @@
+package com.nordigy.testrestapi.api;
+
+import com.nordigy.testrestapi.exception.BulkRequestRejectedException;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.model.UserBulkResult;
+import com.nordigy.testrestapi.service.UserBulkService;
+import com.querydsl.core.types.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.MediaType;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Bulk update ({@code PATCH /api/users?lastName=...}) and delete ({@code DELETE /api/users?lastName=...}) of the users
+ * matching the same filter parameters as {@code GET /api/users}. A request without a filter has to say
+ * {@code all=true}, so that a forgotten query string does not wipe the table.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+public class UserBulkController {
+
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    private final UserPredicateResolver predicateResolver;
+    private final UserBulkService userBulkService;
+
+    @ResponseBody
+    @PatchMapping(path = "/users", consumes = { MediaType.APPLICATION_JSON_VALUE, MERGE_PATCH_JSON_VALUE })
+    public UserBulkResult update(@RequestParam MultiValueMap<String, String> parameters,
+                                 @RequestParam(defaultValue = "false") boolean all,
+                                 @RequestBody User changes) {
+        return new UserBulkResult(userBulkService.update(filter(parameters, all), changes));
+    }
+
+    @ResponseBody
+    @DeleteMapping("/users")
+    public UserBulkResult delete(@RequestParam MultiValueMap<String, String> parameters,
+                                 @RequestParam(defaultValue = "false") boolean all) {
+        return new UserBulkResult(userBulkService.delete(filter(parameters, all)));
+    }
+
+    private Predicate filter(MultiValueMap<String, String> parameters, boolean all) {
+        Predicate predicate = predicateResolver.resolve(parameters);
+        if (predicate == null && !all) {
+            throw new BulkRequestRejectedException("A filter is required, pass all=true to change every user");
+        }
+        return predicate;
+    }
+}
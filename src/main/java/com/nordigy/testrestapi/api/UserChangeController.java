@@ -0,0 +1,59 @@
+package com.nordigy.testrestapi.api;
+
+import com.nordigy.testrestapi.model.UserChangeBatch;
+import com.nordigy.testrestapi.service.UserChangeFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Change feed of the users: server-sent events for {@code Accept: text/event-stream}, a long poll otherwise. A stream
+ * resumes after {@code Last-Event-ID} (sent by {@code EventSource} when it reconnects) or {@code after}, a long poll
+ * after {@code after}.
+ * <p>
+ * A plain controller rather than {@code @RepositoryRestController}, like the export: Spring Data REST rewrites
+ * {@code Accept: *}{@code /*} to HAL.
+ */
+@RestController
+@RequestMapping("${spring.data.rest.basePath}/users")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.changes.enabled", havingValue = "true", matchIfMissing = true)
+public class UserChangeController {
+
+    /**
+     * Path of the feed below the base path. Requests to it stay open, so the filters that limit or move requests
+     * leave it to the feed's own limits.
+     */
+    public static final String PATH = "/users/changes";
+
+    private static final MediaType EVENT_STREAM = new MediaType(MediaType.TEXT_EVENT_STREAM, StandardCharsets.UTF_8);
+
+    private final UserChangeFeed changeFeed;
+
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> stream(@RequestHeader(value = "Last-Event-ID", required = false)
+                                                              Long lastEventId,
+                                                      @RequestParam(required = false) Long after) throws IOException {
+        return ResponseEntity.ok()
+                .contentType(EVENT_STREAM)
+                .cacheControl(CacheControl.noCache())
+                .body(changeFeed.subscribe(lastEventId != null ? lastEventId : after));
+    }
+
+    @GetMapping("/changes")
+    public DeferredResult<UserChangeBatch> poll(@RequestParam(required = false) Long after) {
+        return changeFeed.poll(after);
+    }
+}
@@ -0,0 +1,42 @@
+package com.nordigy.testrestapi.api;
+
+import com.nordigy.testrestapi.service.UserCollectionVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Adds an ETag to the users collection resource and answers {@code If-None-Match} with 304 before the handler runs.
+ * <p>
+ * The tag is derived from the {@link UserCollectionVersion version} of the table plus the query string and
+ * {@code Accept} header, so it changes with any write and differs between pages, filters and representations without
+ * rendering the page to hash it or querying the table.
+ */
+@RequiredArgsConstructor
+public class UserCollectionETagInterceptor implements HandlerInterceptor {
+
+    private final UserCollectionVersion version;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the async dispatch of a request that was already checked
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        String key = version.current() + '|' + request.getQueryString() + '|'
+                + request.getHeader(HttpHeaders.ACCEPT);
+        String eTag = DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+        return !new ServletWebRequest(request, response).checkNotModified(eTag);
+    }
+}
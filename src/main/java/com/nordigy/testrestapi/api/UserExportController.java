@@ -0,0 +1,53 @@
+package com.nordigy.testrestapi.api;
+
+import com.nordigy.testrestapi.service.UserExportFormat;
+import com.nordigy.testrestapi.service.UserExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// A plain controller rather than @RepositoryRestController: Spring Data REST rewrites "Accept: */*" to HAL,
+// which would break the negotiation between the export formats.
+@RestController
+@RequestMapping("${spring.data.rest.basePath}/users")
+@RequiredArgsConstructor
+public class UserExportController {
+
+    private static final List<MediaType> EXPORT_MEDIA_TYPES = Arrays.stream(UserExportFormat.values())
+            .map(UserExportFormat::getMediaType)
+            .collect(Collectors.toList());
+
+    private final UserExportService userExportService;
+
+    @GetMapping("/export")
+    public void export(@RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.ALL_VALUE) String accept,
+                       HttpServletResponse response) throws IOException, HttpMediaTypeNotAcceptableException {
+        UserExportFormat format = negotiate(accept);
+        response.setContentType(format.getMediaType().toString());
+        userExportService.export(format, response.getOutputStream());
+    }
+
+    private static UserExportFormat negotiate(String accept) throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> acceptedTypes = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            for (UserExportFormat format : UserExportFormat.values()) {
+                if (acceptedType.isCompatibleWith(format.getMediaType())) {
+                    return format;
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(EXPORT_MEDIA_TYPES);
+    }
+}
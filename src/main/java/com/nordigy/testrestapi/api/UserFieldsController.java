@@ -0,0 +1,111 @@
+package com.nordigy.testrestapi.api;
+
+import com.nordigy.testrestapi.exception.InvalidParameterException;
+import com.nordigy.testrestapi.model.SliceCollectionModel;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.CountMode;
+import com.nordigy.testrestapi.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.EmbeddedWrappers;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldsets of the users collection, switched on by the {@code fields} parameter
+ * ({@code GET /api/users?fields=id,email}). Only the listed properties are selected from the table and rendered, and
+ * the users carry no links. Filtering, paging, sorting and the {@code count} parameter work as on the users
+ * collection.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+public class UserFieldsController {
+
+    private static final Set<String> FIELDS = Set.of("id", "firstName", "lastName", "email", "dayOfBirth",
+            "lastModifiedDate");
+    private static final LinkRelation USERS = LinkRelation.of("users");
+
+    private final UserPredicateResolver predicateResolver;
+    private final UserRepository userRepository;
+
+    @ResponseBody
+    @GetMapping(path = "/users", params = { "fields", "!after", "!before" })
+    public RepresentationModel<?> findAll(@RequestParam MultiValueMap<String, String> parameters,
+                                      @RequestParam List<String> fields,
+                                      @RequestParam(name = CountParameter.NAME, required = false) String count,
+                                      Pageable pageable) {
+        List<String> properties = fields.stream()
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        if (properties.isEmpty()) {
+            throw new InvalidParameterException("fields", "At least one field is required");
+        }
+        properties.forEach(property -> check("fields", property));
+        pageable.getSort().forEach(order -> check("sort", order.getProperty()));
+
+        Slice<Map<String, Object>> page = userRepository.findAll(predicateResolver.resolve(parameters), pageable,
+                properties, CountParameter.parse(count, CountMode.EXACT));
+        return toModel(page);
+    }
+
+    private static void check(String parameterName, String property) {
+        if (!FIELDS.contains(property)) {
+            throw new InvalidParameterException(parameterName,
+                    "Unknown property '" + property + "'. Available properties: " + FIELDS);
+        }
+    }
+
+    private static RepresentationModel<?> toModel(Slice<Map<String, Object>> page) {
+        // prefer collections, so that a page of one user is still rendered as an array
+        EmbeddedWrappers wrappers = new EmbeddedWrappers(true);
+        List<Object> content = page.getContent().stream()
+                .map(row -> wrappers.wrap(row, USERS))
+                .collect(Collectors.toList());
+        if (content.isEmpty()) {
+            content.add(wrappers.emptyCollectionOf(User.class));
+        }
+
+        List<Link> links = new ArrayList<>();
+        links.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().build(true).toUriString()));
+        if (page.hasNext()) {
+            links.add(link(page.nextPageable(), IanaLinkRelations.NEXT));
+        }
+        if (page.hasPrevious()) {
+            links.add(link(page.previousPageable(), IanaLinkRelations.PREV));
+        }
+        if (page instanceof Page) {
+            Page<?> counted = (Page<?>) page;
+            return PagedModel.of(content, new PagedModel.PageMetadata(counted.getSize(), counted.getNumber(),
+                    counted.getTotalElements(), counted.getTotalPages()), links);
+        }
+        return new SliceCollectionModel<>(content,
+                new SliceCollectionModel.Metadata(page.getSize(), page.getNumber(), null), links);
+    }
+
+    private static Link link(Pageable pageable, LinkRelation relation) {
+        String href = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("page", pageable.getPageNumber())
+                .build(true)
+                .toUriString();
+        return Link.of(href, relation);
+    }
+}
@@ -0,0 +1,29 @@
+package com.nordigy.testrestapi.api;
+
+import com.nordigy.testrestapi.model.UserImportResult;
+import com.nordigy.testrestapi.service.UserImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RepositoryRestController
+@RequiredArgsConstructor
+public class UserImportController {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final UserImportService userImportService;
+
+    @ResponseBody
+    @PostMapping(path = "/users/import",
+            consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<UserImportResult> importUsers(InputStream body) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(body));
+    }
+}
@@ -0,0 +1,113 @@
+package com.nordigy.testrestapi.api;
+
+import com.nordigy.testrestapi.model.SliceCollectionModel;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.CountMode;
+import com.nordigy.testrestapi.repository.UserCounter;
+import com.nordigy.testrestapi.service.KeysetSlice;
+import com.nordigy.testrestapi.service.UserKeysetService;
+import com.querydsl.core.types.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.server.core.EmbeddedWrappers;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset pagination mode of the users collection, switched on by the {@code after} or {@code before} parameter.
+ * Requests without them keep going to the regular offset based Spring Data REST resource.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+public class UserKeysetController {
+
+    private final UserKeysetService keysetService;
+    private final UserPredicateResolver predicateResolver;
+    private final UserCounter userCounter;
+    private final RepositoryRestConfiguration restConfiguration;
+
+    @ResponseBody
+    @GetMapping(path = "/users", params = "after")
+    public SliceCollectionModel<Object> findAfter(@RequestParam MultiValueMap<String, String> parameters,
+                                                  Sort sort,
+                                                  @RequestParam String after,
+                                                  @RequestParam(required = false) Integer size,
+                                                  @RequestParam(required = false) String count,
+                                                  PersistentEntityResourceAssembler assembler) {
+        Predicate predicate = predicateResolver.resolve(parameters);
+        CountMode mode = CountParameter.parse(count, CountMode.NONE);
+        int pageSize = pageSize(size);
+        return toModel(keysetService.findAfter(predicate, sort, after, pageSize), pageSize,
+                total(predicate, mode), assembler);
+    }
+
+    @ResponseBody
+    @GetMapping(path = "/users", params = "before")
+    public SliceCollectionModel<Object> findBefore(@RequestParam MultiValueMap<String, String> parameters,
+                                                   Sort sort,
+                                                   @RequestParam String before,
+                                                   @RequestParam(required = false) Integer size,
+                                                   @RequestParam(required = false) String count,
+                                                   PersistentEntityResourceAssembler assembler) {
+        Predicate predicate = predicateResolver.resolve(parameters);
+        CountMode mode = CountParameter.parse(count, CountMode.NONE);
+        int pageSize = pageSize(size);
+        return toModel(keysetService.findBefore(predicate, sort, before, pageSize), pageSize,
+                total(predicate, mode), assembler);
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null || size < 1) {
+            return restConfiguration.getDefaultPageSize();
+        }
+        return Math.min(size, restConfiguration.getMaxPageSize());
+    }
+
+    private Long total(Predicate predicate, CountMode mode) {
+        return mode == CountMode.NONE ? null : userCounter.count(predicate, mode);
+    }
+
+    private static SliceCollectionModel<Object> toModel(KeysetSlice slice, int size, Long totalElements,
+                                                        PersistentEntityResourceAssembler assembler) {
+        List<Object> content = slice.getContent().stream()
+                .map(assembler::toFullResource)
+                .collect(Collectors.toList());
+        if (content.isEmpty()) {
+            content.add(new EmbeddedWrappers(false).emptyCollectionOf(User.class));
+        }
+
+        List<Link> links = new ArrayList<>();
+        links.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().build(true).toUriString()));
+        if (slice.getNextCursor() != null) {
+            links.add(link("after", slice.getNextCursor(), IanaLinkRelations.NEXT));
+        }
+        if (slice.getPreviousCursor() != null) {
+            links.add(link("before", slice.getPreviousCursor(), IanaLinkRelations.PREV));
+        }
+        return new SliceCollectionModel<>(content, new SliceCollectionModel.Metadata(size, null, totalElements),
+                links);
+    }
+
+    private static Link link(String parameter, String cursor, LinkRelation relation) {
+        String href = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after")
+                .replaceQueryParam("before")
+                .replaceQueryParam(parameter, cursor)
+                .build(true)
+                .toUriString();
+        return Link.of(href, relation);
+    }
+}
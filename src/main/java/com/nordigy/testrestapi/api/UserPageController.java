@@ -0,0 +1,87 @@
+package com.nordigy.testrestapi.api;
+
+import com.nordigy.testrestapi.model.SliceCollectionModel;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.CountMode;
+import com.nordigy.testrestapi.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.EmbeddedWrappers;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The users collection with an explicit {@code count} parameter ({@code GET /api/users?count=estimate}). Requests
+ * without it keep going to the regular Spring Data REST resource, which counts exactly. With {@code count=false} the
+ * page carries no total, only whether there is a next one.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+public class UserPageController {
+
+    private final UserPredicateResolver predicateResolver;
+    private final UserRepository userRepository;
+
+    @ResponseBody
+    @GetMapping(path = "/users", params = { CountParameter.NAME, "!fields", "!after", "!before" })
+    public RepresentationModel<?> findAll(@RequestParam MultiValueMap<String, String> parameters,
+                                          @RequestParam(CountParameter.NAME) String count,
+                                          Pageable pageable,
+                                          PagedResourcesAssembler<Object> pagedAssembler,
+                                          PersistentEntityResourceAssembler assembler) {
+        CountMode mode = CountParameter.parse(count, CountMode.EXACT);
+        Slice<User> users = userRepository.findAll(predicateResolver.resolve(parameters), pageable, mode);
+        if (users instanceof Page) {
+            Page<Object> page = ((Page<User>) users).map(Object.class::cast);
+            return page.hasContent()
+                    ? pagedAssembler.toModel(page, assembler)
+                    : pagedAssembler.toEmptyModel(page, User.class);
+        }
+        return toModel(users, assembler);
+    }
+
+    private static SliceCollectionModel<Object> toModel(Slice<User> slice,
+                                                        PersistentEntityResourceAssembler assembler) {
+        List<Object> content = slice.getContent().stream()
+                .map(assembler::toModel)
+                .collect(Collectors.toList());
+        if (content.isEmpty()) {
+            content.add(new EmbeddedWrappers(false).emptyCollectionOf(User.class));
+        }
+
+        List<Link> links = new ArrayList<>();
+        links.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().build(true).toUriString()));
+        if (slice.hasNext()) {
+            links.add(link(slice.nextPageable(), IanaLinkRelations.NEXT));
+        }
+        if (slice.hasPrevious()) {
+            links.add(link(slice.previousPageable(), IanaLinkRelations.PREV));
+        }
+        return new SliceCollectionModel<>(content,
+                new SliceCollectionModel.Metadata(slice.getSize(), slice.getNumber(), null), links);
+    }
+
+    private static Link link(Pageable pageable, LinkRelation relation) {
+        String href = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("page", pageable.getPageNumber())
+                .build(true)
+                .toUriString();
+        return Link.of(href, relation);
+    }
+}
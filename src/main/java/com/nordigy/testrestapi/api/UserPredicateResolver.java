@@ -0,0 +1,37 @@
+package com.nordigy.testrestapi.api;
+
+import com.nordigy.testrestapi.model.User;
+import com.querydsl.core.types.Predicate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
+import org.springframework.data.querydsl.binding.QuerydslBindingsFactory;
+import org.springframework.data.querydsl.binding.QuerydslPredicateBuilder;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Turns request parameters into a {@link User} filter the same way Spring Data REST does for the collection
+ * resource. {@code @QuerydslPredicate} arguments are not resolved inside {@code @RepositoryRestController}s, so
+ * custom user endpoints use this instead to stay consistent with {@code GET /api/users?firstName=...}.
+ */
+@Component
+public class UserPredicateResolver {
+
+    private static final TypeInformation<User> USER_TYPE = ClassTypeInformation.from(User.class);
+
+    private final QuerydslPredicateBuilder predicateBuilder;
+    private final QuerydslBindings bindings;
+
+    public UserPredicateResolver(QuerydslBindingsFactory bindingsFactory,
+                                 @Qualifier("defaultConversionService") ConversionService conversionService) {
+        this.predicateBuilder = new QuerydslPredicateBuilder(conversionService, bindingsFactory.getEntityPathResolver());
+        this.bindings = bindingsFactory.createBindingsFor(USER_TYPE);
+    }
+
+    public Predicate resolve(MultiValueMap<String, String> parameters) {
+        return predicateBuilder.getPredicate(USER_TYPE, parameters, bindings);
+    }
+}
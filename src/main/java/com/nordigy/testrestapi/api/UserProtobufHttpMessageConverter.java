@@ -0,0 +1,81 @@
+package com.nordigy.testrestapi.api;
+
+import com.google.protobuf.CodedOutputStream;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.service.UserProtobufEncoder;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes user resources and collections of users as the protobuf messages of {@code proto/users.proto}. Links are
+ * left out; anything but users, like a projection or a sparse fieldset, cannot be written.
+ */
+public class UserProtobufHttpMessageConverter extends AbstractHttpMessageConverter<RepresentationModel<?>> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public UserProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EntityModel.class.isAssignableFrom(clazz) || CollectionModel.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected RepresentationModel<?> readInternal(Class<? extends RepresentationModel<?>> clazz,
+                                                  HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading protobuf is not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(RepresentationModel<?> model, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (model instanceof EntityModel) {
+            UserProtobufEncoder.writeUser(user(((EntityModel<?>) model).getContent()), out);
+        } else {
+            List<User> users = new ArrayList<>();
+            for (Object element : ((CollectionModel<?>) model).getContent()) {
+                if (element instanceof EmbeddedWrapper) {
+                    // the placeholder of an empty collection, or rows of a sparse fieldset that are refused below
+                    element = ((EmbeddedWrapper) element).getValue();
+                    if (element instanceof Collection && ((Collection<?>) element).isEmpty()) {
+                        continue;
+                    }
+                }
+                users.add(user(element instanceof EntityModel ? ((EntityModel<?>) element).getContent() : element));
+            }
+            UserProtobufEncoder.writePage(users,
+                    model instanceof PagedModel ? ((PagedModel<?>) model).getMetadata() : null, out);
+        }
+        out.flush();
+    }
+
+    private static User user(Object content) {
+        if (!(content instanceof User)) {
+            throw new HttpMessageNotWritableException("Only users can be written as " + APPLICATION_PROTOBUF
+                    + ", not " + (content == null ? null : content.getClass().getName()));
+        }
+        return (User) content;
+    }
+}
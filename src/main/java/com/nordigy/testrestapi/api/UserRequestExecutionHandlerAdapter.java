@@ -0,0 +1,152 @@
+package com.nordigy.testrestapi.api;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.HandlerAdapter;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.NestedServletException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the handlers of {@code /api/users} on an executor with Spring MVC async support, so the Tomcat worker thread
+ * is free again while the request waits for the database.
+ * <p>
+ * The adapter comes first and hands the handler to the adapter that would have run it, inside a {@link WebAsyncTask}.
+ * Its result is picked up on the async dispatch, where an exception goes to the exception resolvers like any other,
+ * {@link ExceptionHandlerController} included; that is also where a request the executor rejects is answered. All
+ * filters and interceptors run as for any async request.
+ * <p>
+ * Requests to the excluded paths run where they are; their handlers are async themselves and free the thread right
+ * away.
+ */
+public class UserRequestExecutionHandlerAdapter implements HandlerAdapter, Ordered, DisposableBean {
+
+    private static final String EXECUTED_ATTRIBUTE = UserRequestExecutionHandlerAdapter.class.getName() + ".EXECUTED";
+
+    private final ExecutorService executor;
+    private final AsyncTaskExecutor taskExecutor;
+    private final String usersPath;
+    private final Set<String> excludedPaths;
+    private final Supplier<List<HandlerAdapter>> adapters;
+
+    /**
+     * @param adapters the handler adapters of the application, this one among them
+     */
+    public UserRequestExecutionHandlerAdapter(ExecutorService executor, String usersPath, Set<String> excludedPaths,
+                                              Supplier<List<HandlerAdapter>> adapters) {
+        this.executor = executor;
+        this.taskExecutor = new TaskExecutorAdapter(executor);
+        this.usersPath = usersPath;
+        this.excludedPaths = excludedPaths;
+        this.adapters = adapters;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public boolean supports(Object handler) {
+        return adapter(handler) != null;
+    }
+
+    @Override
+    public ModelAndView handle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        if (request.getAttribute(EXECUTED_ATTRIBUTE) != null && asyncManager.hasConcurrentResult()) {
+            request.removeAttribute(EXECUTED_ATTRIBUTE);
+            Object result = asyncManager.getConcurrentResult();
+            asyncManager.clearConcurrentResult();
+            if (result instanceof Exception) {
+                throw (Exception) result;
+            }
+            if (result instanceof Throwable) {
+                throw new NestedServletException("Handler dispatch failed", (Throwable) result);
+            }
+            return (ModelAndView) result;
+        }
+
+        HandlerAdapter adapter = adapter(handler);
+        if (!isExecuted(request)) {
+            return adapter.handle(request, response, handler);
+        }
+        request.setAttribute(EXECUTED_ATTRIBUTE, Boolean.TRUE);
+        asyncManager.setAsyncWebRequest(WebAsyncUtils.createAsyncWebRequest(request, response));
+        // a synchronous request does not time out either
+        WebAsyncTask<ModelAndView> task = new WebAsyncTask<>(0L, taskExecutor,
+                () -> adapter.handle(new OwnAsyncManagerRequest(request), response, handler));
+        try {
+            asyncManager.startCallableProcessing(task);
+        } catch (RejectedExecutionException ex) {
+            // the exception is already the result of the request
+        }
+        return null;
+    }
+
+    @Override
+    public long getLastModified(HttpServletRequest request, Object handler) {
+        return adapter(handler).getLastModified(request, handler);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private boolean isExecuted(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return (path.equals(usersPath) || path.startsWith(usersPath + "/")) && !excludedPaths.contains(path);
+    }
+
+    private HandlerAdapter adapter(Object handler) {
+        for (HandlerAdapter adapter : adapters.get()) {
+            if (adapter != this && adapter.supports(handler)) {
+                return adapter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The request as the handler sees it on the executor, with an async manager of its own. The adapter of the
+     * handler sets up the async manager of the request for each call, which would otherwise replace the one the
+     * request is already async with.
+     */
+    private static final class OwnAsyncManagerRequest extends HttpServletRequestWrapper {
+
+        private Object asyncManager;
+
+        OwnAsyncManagerRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return WebAsyncUtils.WEB_ASYNC_MANAGER_ATTRIBUTE.equals(name) ? asyncManager : super.getAttribute(name);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            if (WebAsyncUtils.WEB_ASYNC_MANAGER_ATTRIBUTE.equals(name)) {
+                asyncManager = value;
+            } else {
+                super.setAttribute(name, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.nordigy.testrestapi.api;
+
+import com.nordigy.testrestapi.config.SearchProperties;
+import com.nordigy.testrestapi.exception.InvalidParameterException;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.UserRepository;
+import com.nordigy.testrestapi.service.UserSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.core.EmbeddedWrappers;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Type-ahead search over names and emails, answered from {@link UserSearchIndex}. Only the users on the result are
+ * read from the database.
+ */
+@RepositoryRestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.search.enabled", havingValue = "true", matchIfMissing = true)
+public class UserSearchController {
+
+    private final UserSearchIndex searchIndex;
+    private final UserRepository userRepository;
+    private final SearchProperties properties;
+
+    @ResponseBody
+    @GetMapping(path = "/users/search", params = "q")
+    public CollectionModel<Object> search(@RequestParam String q,
+                                          @RequestParam(required = false) Integer size,
+                                          PersistentEntityResourceAssembler assembler) {
+        if (q.isBlank()) {
+            throw new InvalidParameterException("q", "The query must not be blank");
+        }
+        List<Long> ids = searchIndex.search(q, size == null || size < 1
+                ? properties.getDefaultSize()
+                : Math.min(size, properties.getMaxSize()));
+
+        Map<Long, User> users = StreamSupport.stream(userRepository.findAllById(ids).spliterator(), false)
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        // in the order of the index, a user deleted in the meantime is left out
+        List<Object> content = ids.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(assembler::toFullResource)
+                .collect(Collectors.toList());
+        if (content.isEmpty()) {
+            content.add(new EmbeddedWrappers(false).emptyCollectionOf(User.class));
+        }
+        return CollectionModel.of(content,
+                Link.of(ServletUriComponentsBuilder.fromCurrentRequest().build(true).toUriString()));
+    }
+}
@@ -0,0 +1,15 @@
+package com.nordigy.testrestapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.bulk")
+public class BulkProperties {
+
+    /**
+     * Most users a single bulk update or delete may match, {@code 0} for no limit. Checking it reads the ids of up to
+     * that many users.
+     */
+    private int maxUsers;
+}
@@ -0,0 +1,54 @@
+package com.nordigy.testrestapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.changes")
+public class ChangeFeedProperties {
+
+    /**
+     * Publish user writes on {@code /api/users/changes}.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Recent changes kept for clients that resume. A client further behind is sent a {@code reset} and has to read
+     * the users again; a subscriber that falls that far behind while connected is disconnected.
+     */
+    private int bufferSize = 4096;
+
+    /**
+     * Open streams and pending long polls at once. Requests beyond it are answered with 503.
+     */
+    private int maxSubscribers = 256;
+
+    /**
+     * Changes within this interval reach a subscriber in one write.
+     */
+    private Duration flushInterval = Duration.ofMillis(50);
+
+    /**
+     * A stream without changes for this long is sent a comment, so that proxies keep it open and closed connections
+     * are noticed.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * A stream is ended after this long; {@code EventSource} reconnects with {@code Last-Event-ID} and misses nothing.
+     */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    /**
+     * A long poll without changes is answered empty after this long.
+     */
+    private Duration longPollTimeout = Duration.ofSeconds(25);
+
+    /**
+     * Threads writing to subscribers. A subscriber has at most one write in progress, the changes that arrive
+     * meanwhile are sent from the buffer with its next one.
+     */
+    private int senderThreads = 4;
+}
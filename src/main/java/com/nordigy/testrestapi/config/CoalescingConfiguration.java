@@ -0,0 +1,22 @@
+package com.nordigy.testrestapi.config;
+
+import com.nordigy.testrestapi.repository.CoalescingRepositoryPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Single-flight coalescing of concurrent identical reads of users, see {@code CoalescingRepositoryInterceptor}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.coalescing.enabled", havingValue = "true")
+public class CoalescingConfiguration {
+
+    @Bean
+    public static CoalescingRepositoryPostProcessor coalescingRepositoryPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<CoalescingProperties> properties) {
+        return new CoalescingRepositoryPostProcessor(meterRegistry, properties);
+    }
+}
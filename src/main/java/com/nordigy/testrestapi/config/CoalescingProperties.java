@@ -0,0 +1,21 @@
+package com.nordigy.testrestapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.coalescing")
+public class CoalescingProperties {
+
+    /**
+     * Let concurrent identical reads of users share one query. Off by default.
+     */
+    private boolean enabled;
+
+    /**
+     * How long a read waits for a concurrent identical one before it runs the query itself.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(1);
+}
@@ -0,0 +1,38 @@
+package com.nordigy.testrestapi.config;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.nordigy.testrestapi.api.CompressionFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Response compression for all paths, see {@link CompressionFilter}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.compression.enabled", havingValue = "true", matchIfMissing = true)
+public class CompressionConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(CompressionConfiguration.class);
+
+    @Bean
+    public FilterRegistrationBean<CompressionFilter> compressionFilter(CompressionProperties properties) {
+        int brotliQuality = properties.isBrotli() ? properties.getBrotliQuality() : -1;
+        if (properties.isBrotli() && !Brotli4jLoader.isAvailable()) {
+            log.warn("Brotli is not available on this platform, responses are compressed with gzip only",
+                    Brotli4jLoader.getUnavailabilityCause());
+            brotliQuality = -1;
+        }
+        FilterRegistrationBean<CompressionFilter> registration = new FilterRegistrationBean<>(
+                new CompressionFilter(properties.getMimeTypes(), (int) properties.getMinResponseSize().toBytes(),
+                        brotliQuality));
+        registration.setAsyncSupported(true);
+        // outside the other filters, so everything they write is compressed
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
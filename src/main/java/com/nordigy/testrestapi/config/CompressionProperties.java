@@ -0,0 +1,39 @@
+package com.nordigy.testrestapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.compression")
+public class CompressionProperties {
+
+    /**
+     * Compress responses for clients that send {@code Accept-Encoding}. Replaces {@code server.compression}, which
+     * should stay off.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Content types that are compressed.
+     */
+    private List<String> mimeTypes = List.of("application/json", "application/hal+json", "application/x-ndjson",
+            "text/csv", "application/x-jackson-smile", "application/cbor", "application/x-protobuf", "text/plain");
+
+    /**
+     * Smaller bodies are sent as they are, compressing them costs more than it saves.
+     */
+    private DataSize minResponseSize = DataSize.ofKilobytes(2);
+
+    /**
+     * Prefer brotli to gzip for clients that accept it.
+     */
+    private boolean brotli = true;
+
+    /**
+     * Brotli quality from 0 to 11. Higher levels compress only slightly better but are much slower.
+     */
+    private int brotliQuality = 4;
+}
@@ -0,0 +1,24 @@
+package com.nordigy.testrestapi.config;
+
+import com.nordigy.testrestapi.api.UserCollectionETagInterceptor;
+import com.nordigy.testrestapi.service.UserCollectionVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+/**
+ * Item resources get ETag and Last-Modified from Spring Data REST through the {@code @Version} and
+ * {@code @LastModifiedDate} properties of the entity; the collection resource is covered here.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ConditionalRequestConfiguration {
+
+    // A MappedInterceptor bean is picked up by every handler mapping, including the Spring Data REST one.
+    @Bean
+    public MappedInterceptor userCollectionETagInterceptor(@Value("${spring.data.rest.basePath}") String basePath,
+                                                           UserCollectionVersion version) {
+        return new MappedInterceptor(new String[] { basePath + "/users" },
+                new UserCollectionETagInterceptor(version));
+    }
+}
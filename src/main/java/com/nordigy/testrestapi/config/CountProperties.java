@@ -0,0 +1,34 @@
+package com.nordigy.testrestapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.count")
+public class CountProperties {
+
+    /**
+     * How long the total of a filtered listing is reused. Writes announced by events drop the cached totals earlier;
+     * zero counts every time.
+     */
+    private Duration cacheTtl = Duration.ofSeconds(5);
+
+    /**
+     * Most filters whose totals are cached.
+     */
+    private int cacheSize = 10_000;
+
+    /**
+     * How often the total of the whole table, otherwise kept up to date from write events, is counted again to catch
+     * writes that bypass the events.
+     */
+    private Duration resyncInterval = Duration.ofMinutes(5);
+
+    /**
+     * Most users counted for {@code count=estimate}, unless the requested page ends further. A larger total is reported
+     * as one more than this number.
+     */
+    private int estimateLimit = 10_000;
+}
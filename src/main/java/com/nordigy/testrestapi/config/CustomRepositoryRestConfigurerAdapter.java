@@ -1,32 +1,68 @@
 package com.nordigy.testrestapi.config;
 
 import com.nordigy.testrestapi.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
 import org.springframework.data.rest.core.event.ValidatingRepositoryEventListener;
 import org.springframework.data.rest.webmvc.config.RepositoryRestConfigurer;
-import org.springframework.validation.Validator;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Users are validated once per write: on the repository events listed in {@code app.validation.events} (before
+ * create and before save by default). Validation on the JPA lifecycle is switched off in application.properties, so
+ * writes that bypass Spring Data REST have to validate explicitly, as the import, the bulk endpoints, the reactive API
+ * and the seeding do.
+ */
 @Configuration
+@RequiredArgsConstructor
 public class CustomRepositoryRestConfigurerAdapter implements RepositoryRestConfigurer {
 
+    private static final Set<String> EVENTS = Set.of("beforeCreate", "afterCreate", "beforeSave", "afterSave",
+            "beforeLinkSave", "afterLinkSave", "beforeDelete", "afterDelete");
+
+    private final ValidationProperties validationProperties;
+
     @Bean
-    public Validator validator() {
+    public LocalValidatorFactoryBean validator() {
         return new LocalValidatorFactoryBean();
     }
 
     @Override
     public void configureValidatingRepositoryEventListener(ValidatingRepositoryEventListener validatingListener) {
-        validatingListener.addValidator("afterCreate", validator());
-        validatingListener.addValidator("beforeCreate", validator());
-        validatingListener.addValidator("afterSave", validator());
-        validatingListener.addValidator("beforeSave", validator());
+        LocalValidatorFactoryBean validator = validator();
+        for (String event : validationProperties.getEvents()) {
+            if (!EVENTS.contains(event)) {
+                throw new IllegalArgumentException(
+                        String.format("Unknown repository event '%s' in app.validation.events, expected one of %s",
+                                event, EVENTS));
+            }
+            validatingListener.addValidator(event, validator);
+        }
     }
 
     @Override
     public void configureRepositoryRestConfiguration(RepositoryRestConfiguration config) {
         config.exposeIdsFor(User.class);
     }
+
+    /**
+     * Builds the constraint metadata of {@link User} and initializes its constraint validators (including the
+     * {@code @Email} pattern) before the first request rather than during it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpValidator() {
+        validator().validate(User.builder()
+                .firstName("Warm")
+                .lastName("Up")
+                .email("warm.up@example.com")
+                .dayOfBirth(LocalDate.of(2000, 1, 1))
+                .build());
+    }
 }
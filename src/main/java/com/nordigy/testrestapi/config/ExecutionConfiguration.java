@@ -0,0 +1,73 @@
+package com.nordigy.testrestapi.config;
+
+import com.nordigy.testrestapi.api.UserChangeController;
+import com.nordigy.testrestapi.api.UserRequestExecutionHandlerAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.servlet.HandlerAdapter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Moves {@code /api/users} requests off the Tomcat worker threads when {@code app.execution.mode} is not
+ * {@code platform}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("!'${app.execution.mode:platform}'.equalsIgnoreCase('platform')")
+public class ExecutionConfiguration {
+
+    /**
+     * Prefix of the executor metrics: queued and active requests, remaining queue capacity, execution and wait times.
+     */
+    public static final String EXECUTOR_METRICS_NAME = "users.api";
+
+    @Bean
+    public UserRequestExecutionHandlerAdapter userRequestExecutionHandlerAdapter(
+            @Value("${spring.data.rest.basePath}") String basePath, ExecutionProperties properties,
+            MeterRegistry meterRegistry, ObjectProvider<HandlerAdapter> adapters) {
+        ExecutorService executor = ExecutorServiceMetrics.monitor(meterRegistry, createExecutor(properties),
+                EXECUTOR_METRICS_NAME);
+        // resolved on the first request, not all of the adapters are created yet
+        return new UserRequestExecutionHandlerAdapter(executor, basePath + "/users",
+                Set.of(basePath + UserChangeController.PATH),
+                SingletonSupplier.of(() -> adapters.orderedStream().collect(Collectors.toList())));
+    }
+
+    private static ExecutorService createExecutor(ExecutionProperties properties) {
+        switch (properties.getMode()) {
+            case BOUNDED:
+                BlockingQueue<Runnable> queue = properties.getQueueCapacity() > 0
+                        ? new ArrayBlockingQueue<>(properties.getQueueCapacity())
+                        : new SynchronousQueue<>();
+                return new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0, TimeUnit.MILLISECONDS,
+                        queue, new CustomizableThreadFactory("users-api-"), new ThreadPoolExecutor.AbortPolicy());
+            case VIRTUAL:
+                try {
+                    return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                } catch (NoSuchMethodException ex) {
+                    throw new IllegalStateException("Virtual threads need JDK 21 or newer, running on "
+                            + System.getProperty("java.version"), ex);
+                } catch (IllegalAccessException | InvocationTargetException ex) {
+                    throw new IllegalStateException("Could not create a virtual thread executor", ex);
+                }
+            default:
+                throw new IllegalStateException("Unknown execution mode " + properties.getMode());
+        }
+    }
+}
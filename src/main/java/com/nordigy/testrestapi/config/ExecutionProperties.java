@@ -0,0 +1,33 @@
+package com.nordigy.testrestapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.execution")
+public class ExecutionProperties {
+
+    /**
+     * Where {@code /api/users} requests run.
+     */
+    private Mode mode = Mode.PLATFORM;
+
+    /**
+     * Worker threads of the bounded mode. The requests mostly wait for JDBC, so size it like the connection pool.
+     */
+    private int threads = 10;
+
+    /**
+     * Requests waiting for a worker in the bounded mode. Requests beyond it are answered with 503.
+     */
+    private int queueCapacity = 100;
+
+    public enum Mode {
+        /** On the Tomcat worker thread that accepted the request. */
+        PLATFORM,
+        /** On a fixed pool of {@code threads} with a queue of {@code queue-capacity}. */
+        BOUNDED,
+        /** On a new virtual thread per request, needs JDK 21 or newer. */
+        VIRTUAL
+    }
+}
@@ -0,0 +1,14 @@
+package com.nordigy.testrestapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.export")
+public class ExportProperties {
+
+    /**
+     * JDBC fetch size of the export cursor. The persistence context is cleared after the same number of rows.
+     */
+    private int fetchSize = 1000;
+}
@@ -0,0 +1,14 @@
+package com.nordigy.testrestapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.import")
+public class ImportProperties {
+
+    /**
+     * Number of users written per transaction. Keep it a multiple of hibernate.jdbc.batch_size.
+     */
+    private int batchSize = 500;
+}
@@ -0,0 +1,46 @@
+package com.nordigy.testrestapi.config;
+
+import com.nordigy.testrestapi.api.ClientRateLimiter;
+import com.nordigy.testrestapi.api.RateLimitFilter;
+import com.nordigy.testrestapi.api.UserChangeController;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.util.Set;
+
+/**
+ * Rate and concurrency limits in front of {@code /api/users}, see {@link RateLimitFilter}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true")
+public class RateLimitConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            @Value("${spring.data.rest.basePath}") String basePath, RateLimitProperties properties,
+            MeterRegistry meterRegistry,
+            @Qualifier("handlerExceptionResolver") ObjectProvider<HandlerExceptionResolver> exceptionResolver) {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(properties.getRequestsPerSecond(), properties.getBurst(),
+                properties.getMaxClients());
+        // resolved on the first request, the filter itself is created before the MVC infrastructure
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter, properties.getMaxConcurrentRequests(),
+                StringUtils.hasText(properties.getClientHeader()) ? properties.getClientHeader() : null,
+                Set.of(basePath + UserChangeController.PATH), meterRegistry, SingletonSupplier.of(exceptionResolver::getObject));
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns(basePath + "/users", basePath + "/users/*");
+        registration.setAsyncSupported(true);
+        // inside compression, ahead of everything that does work for the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,41 @@
+package com.nordigy.testrestapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Limit {@code /api/users} requests per client and in total. Off by default, since test suites usually send
+     * all their requests from one address.
+     */
+    private boolean enabled;
+
+    /**
+     * Sustained requests per second of one client. Requests beyond it are answered with 429 and {@code Retry-After}.
+     */
+    private double requestsPerSecond = 100;
+
+    /**
+     * Requests a client that was idle may send at once before it is held to {@code requests-per-second}.
+     */
+    private int burst = 200;
+
+    /**
+     * Header that identifies the client, for clients behind a shared address. Without it, or when the request does
+     * not carry it, the client is its remote address.
+     */
+    private String clientHeader;
+
+    /**
+     * Clients tracked at once. Idle clients are forgotten; beyond this, new clients share one bucket.
+     */
+    private int maxClients = 10_000;
+
+    /**
+     * Requests served at the same time over all clients. Requests beyond it are answered with 503 right away.
+     */
+    private int maxConcurrentRequests = 64;
+}
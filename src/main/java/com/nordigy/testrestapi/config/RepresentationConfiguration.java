@@ -0,0 +1,54 @@
+package com.nordigy.testrestapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.nordigy.testrestapi.api.JacksonBinaryHttpMessageConverter;
+import com.nordigy.testrestapi.api.ProducibleMediaTypesInterceptor;
+import com.nordigy.testrestapi.api.UserProtobufHttpMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.rest.webmvc.config.RepositoryRestConfigurer;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+import java.util.List;
+
+/**
+ * Binary representations of the Spring Data REST resources, chosen with the {@code Accept} header: Smile and CBOR
+ * with the same structure as HAL, and protobuf for users. They are added after the JSON converters, so JSON stays
+ * the default. Plain Spring MVC controllers get Smile and CBOR from Spring itself.
+ */
+@Configuration(proxyBeanMethods = false)
+public class RepresentationConfiguration implements RepositoryRestConfigurer {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    public static final MediaType APPLICATION_CBOR = new MediaType("application", "cbor");
+
+    @Bean
+    public MappedInterceptor binaryUserRepresentationsInterceptor(
+            @Value("${spring.data.rest.basePath}") String basePath) {
+        return new MappedInterceptor(new String[] { basePath + "/users", basePath + "/users/**" },
+                new ProducibleMediaTypesInterceptor(List.of(APPLICATION_SMILE, APPLICATION_CBOR,
+                        UserProtobufHttpMessageConverter.APPLICATION_PROTOBUF)));
+    }
+
+    @Override
+    public void configureHttpMessageConverters(List<HttpMessageConverter<?>> messageConverters) {
+        ObjectMapper halObjectMapper = messageConverters.stream()
+                .filter(converter -> converter instanceof AbstractJackson2HttpMessageConverter)
+                .filter(converter -> converter.getSupportedMediaTypes().contains(MediaTypes.HAL_JSON))
+                .map(converter -> ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No HAL message converter to base Smile and CBOR on"));
+        messageConverters.add(new JacksonBinaryHttpMessageConverter(halObjectMapper, new SmileFactory(),
+                APPLICATION_SMILE));
+        messageConverters.add(new JacksonBinaryHttpMessageConverter(halObjectMapper, new CBORFactory(),
+                APPLICATION_CBOR));
+        messageConverters.add(new UserProtobufHttpMessageConverter());
+    }
+}
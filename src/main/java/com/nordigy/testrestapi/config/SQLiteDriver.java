@@ -0,0 +1,42 @@
+package com.nordigy.testrestapi.config;
+
+import org.sqlite.JDBC;
+import org.sqlite.jdbc4.JDBC4Connection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * SQLite driver that keeps the {@code busy_timeout} of the connection properties as a lower bound.
+ * <p>
+ * The driver implements {@link java.sql.Statement#setQueryTimeout} with the busy timeout of the whole connection, and
+ * Hibernate resets the query timeout of every statement it closes to 0. After the first query a connection would give
+ * up with {@code SQLITE_BUSY} at once instead of waiting for the writer.
+ */
+public class SQLiteDriver extends JDBC {
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!isValidURL(url)) {
+            return null;
+        }
+        String trimmed = url.trim();
+        return new BusyTimeoutConnection(trimmed, trimmed.substring(PREFIX.length()), info);
+    }
+
+    private static final class BusyTimeoutConnection extends JDBC4Connection {
+
+        private final int minBusyTimeout;
+
+        BusyTimeoutConnection(String url, String fileName, Properties info) throws SQLException {
+            super(url, fileName, info);
+            this.minBusyTimeout = getBusyTimeout();
+        }
+
+        @Override
+        public void setBusyTimeout(int timeoutMillis) throws SQLException {
+            super.setBusyTimeout(Math.max(timeoutMillis, minBusyTimeout));
+        }
+    }
+}
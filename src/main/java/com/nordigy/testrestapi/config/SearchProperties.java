@@ -0,0 +1,24 @@
+package com.nordigy.testrestapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.search")
+public class SearchProperties {
+
+    /**
+     * Keep the in-memory index behind {@code /api/users/search}. It takes roughly 300 bytes per user.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of results when the request has no {@code size}.
+     */
+    private int defaultSize = 10;
+
+    /**
+     * Upper bound of the {@code size} parameter.
+     */
+    private int maxSize = 100;
+}
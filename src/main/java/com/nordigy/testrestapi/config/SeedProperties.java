@@ -0,0 +1,88 @@
+package com.nordigy.testrestapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.seed")
+public class SeedProperties {
+
+    /**
+     * Number of synthetic users generated at startup. 0 creates the 20 demo users instead.
+     */
+    private int count;
+
+    /**
+     * Leave a user table that already has rows as it is, e.g. when a file database ({@code h2-file} or
+     * {@code sqlite} profile) is opened again.
+     */
+    private boolean skipIfPopulated = true;
+
+    /**
+     * Seed of the generator. The same seed and count always produce the same users, whatever the parallelism.
+     */
+    private long seed = 42;
+
+    /**
+     * Number of threads writing users, each through its own connection. Keep it below the pool size.
+     */
+    private int parallelism = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+
+    /**
+     * Users per JDBC batch or CSV file.
+     */
+    private int batchSize = 10_000;
+
+    /**
+     * Drop the secondary indexes of the user table while seeding and build them once at the end.
+     */
+    private boolean deferIndexes = true;
+
+    /**
+     * How the generated rows reach the database.
+     */
+    private Mode mode = Mode.JDBC;
+
+    /**
+     * How first and last names are drawn from their lists.
+     */
+    private Distribution nameDistribution = Distribution.ZIPF;
+
+    private List<String> firstNames = List.of("James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael",
+            "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+            "Sarah", "Charles", "Karen", "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Betty", "Anthony",
+            "Margaret", "Mark", "Sandra", "Donald", "Ashley", "Steven", "Kimberly", "Paul", "Emily", "Andrew", "Donna",
+            "Joshua", "Michelle", "Alex", "Nataly");
+
+    private List<String> lastNames = List.of("Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas",
+            "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark",
+            "Ramirez", "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen",
+            "Hill", "Flores", "Portman", "Erickson", "Roach", "Doe", "Li");
+
+    /**
+     * Domains of the generated emails, picked uniformly.
+     */
+    private List<String> emailDomains = List.of("gmail.com", "yahoo.com", "outlook.com", "example.com", "mail.ru");
+
+    /**
+     * Age range of the generated users in years, picked uniformly.
+     */
+    private int minAge = 18;
+    private int maxAge = 90;
+
+    public enum Mode {
+        /** Batched {@code INSERT} statements. */
+        JDBC,
+        /** CSV files loaded with H2's {@code CSVREAD}, H2 only. */
+        CSV
+    }
+
+    public enum Distribution {
+        UNIFORM,
+        /** A few names are very common and most are rare, like in a real user base. */
+        ZIPF
+    }
+}
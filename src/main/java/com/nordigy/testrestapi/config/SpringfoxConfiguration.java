@@ -1,5 +1,8 @@
 package com.nordigy.testrestapi.config;
 
+import com.nordigy.testrestapi.api.LazyApiDocumentationFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -11,12 +14,13 @@ import springfox.documentation.service.Contact;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.data.rest.configuration.SpringDataRestConfiguration;
 import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.spring.web.plugins.DocumentationPluginsBootstrapper;
 import springfox.documentation.swagger2.annotations.EnableSwagger2WebMvc;
 
 import java.util.Collections;
 
 @EnableSwagger2WebMvc
-@Configuration
+@Configuration(proxyBeanMethods = false)
 @Import({ BeanValidatorPluginsConfiguration.class, SpringDataRestConfiguration.class })
 public class SpringfoxConfiguration {
 
@@ -30,6 +34,19 @@ public class SpringfoxConfiguration {
                 .apiInfo(apiInfo());
     }
 
+    /**
+     * Triggers the documentation scan that the 'fast-start' profile leaves out of the startup.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "springfox.documentation.auto-startup", havingValue = "false")
+    public FilterRegistrationBean<LazyApiDocumentationFilter> lazyApiDocumentationFilter(
+            DocumentationPluginsBootstrapper bootstrapper) {
+        FilterRegistrationBean<LazyApiDocumentationFilter> registration =
+                new FilterRegistrationBean<>(new LazyApiDocumentationFilter(bootstrapper));
+        registration.addUrlPatterns("/v2/api-docs", "/swagger-resources/*");
+        return registration;
+    }
+
     private ApiInfo apiInfo() {
         return new ApiInfo(
                 "Test REST API",
@@ -0,0 +1,16 @@
+package com.nordigy.testrestapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.validation")
+public class ValidationProperties {
+
+    /**
+     * Spring Data REST repository events on which users are bean-validated, e.g. beforeCreate, afterSave.
+     */
+    private List<String> events = List.of("beforeCreate", "beforeSave");
+}
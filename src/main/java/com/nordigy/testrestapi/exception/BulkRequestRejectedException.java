@@ -0,0 +1,12 @@
+package com.nordigy.testrestapi.exception;
+
+/**
+ * Thrown when a bulk update or delete of users is refused before anything is written: it has no filter, nothing to
+ * set, or matches too many users. Answered with {@code 400} without a stack trace.
+ */
+public class BulkRequestRejectedException extends RuntimeException {
+
+    public BulkRequestRejectedException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,19 @@
+package com.nordigy.testrestapi.exception;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when the users API already serves as many requests as it may at once. Answered with {@code 503} like a
+ * request the bounded executor rejects, without a stack trace.
+ */
+public class ConcurrencyLimitExceededException extends RejectedExecutionException {
+
+    public ConcurrencyLimitExceededException(int maxConcurrentRequests) {
+        super("More than " + maxConcurrentRequests + " concurrent requests");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
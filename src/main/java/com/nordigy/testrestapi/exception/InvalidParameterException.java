@@ -0,0 +1,22 @@
+package com.nordigy.testrestapi.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a request parameter is present and well-formed for its type, but cannot be honoured. It is answered with
+ * {@code 400} and never logged, so no stack trace is captured.
+ */
+@Getter
+public class InvalidParameterException extends RuntimeException {
+
+    private final String parameterName;
+
+    public InvalidParameterException(String parameterName, String message) {
+        this(parameterName, message, null);
+    }
+
+    public InvalidParameterException(String parameterName, String message, Throwable cause) {
+        super(message, cause, false, false);
+        this.parameterName = parameterName;
+    }
+}
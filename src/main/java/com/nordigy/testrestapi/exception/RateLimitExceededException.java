@@ -0,0 +1,18 @@
+package com.nordigy.testrestapi.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a client has used up its requests for now. Answered with {@code 429} and a {@code Retry-After} header,
+ * without a stack trace.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Rate limit exceeded, retry after " + retryAfterSeconds + " s", null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,12 @@
+package com.nordigy.testrestapi.exception;
+
+/**
+ * Thrown when the user search index is still being loaded after startup. Answered with {@code 503} without a stack
+ * trace, since every search request fails this way until the index is ready.
+ */
+public class SearchIndexNotReadyException extends RuntimeException {
+
+    public SearchIndexNotReadyException() {
+        super("The search index is being built", null, false, false);
+    }
+}
@@ -0,0 +1,12 @@
+package com.nordigy.testrestapi.exception;
+
+/**
+ * Thrown when a conditional write names a version of the user other than its current one, so that a concurrent change
+ * is not overwritten. Answered with {@code 412} without a stack trace.
+ */
+public class UserVersionMismatchException extends RuntimeException {
+
+    public UserVersionMismatchException(String message) {
+        super(message, null, false, false);
+    }
+}
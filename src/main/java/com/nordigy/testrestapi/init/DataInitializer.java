@@ -1,18 +1,27 @@
 package com.nordigy.testrestapi.init;
 
+import com.nordigy.testrestapi.config.SeedProperties;
 import com.nordigy.testrestapi.model.User;
 import com.nordigy.testrestapi.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.stereotype.Component;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.sql.ResultSet;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.function.IntFunction;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 @Component
@@ -22,20 +31,47 @@ public class DataInitializer implements CommandLineRunner {
     private static final Logger log =  LoggerFactory.getLogger(DataInitializer.class);
 
     private final UserRepository userRepository;
+    private final UserDataGenerator userDataGenerator;
+    private final SeedProperties seedProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
 
     private static final List<String> firstNames = List.of("John", "Robert", "Nataly", "Mary", "Alex", "Mark");
     private static final List<String> lastNames = List.of("Doe", "Smith", "Portman", "Li", "Erickson", "Roach");
 
     @Override
     public void run(String... args) {
+        if (seedProperties.isSkipIfPopulated() && isPopulated()) {
+            log.info("Users already exist, skipping seeding");
+            return;
+        }
+        if (seedProperties.getCount() > 0) {
+            userDataGenerator.generate();
+            return;
+        }
+
         Random random = new Random();
         int firstNamesSize = firstNames.size();
         int lastNamesSize = lastNames.size();
-        IntStream.rangeClosed(1, 20)
-                 .mapToObj(buildRandomUser(random, firstNamesSize, lastNamesSize))
-                 .forEach(userRepository::save);
+        List<User> users = IntStream.rangeClosed(1, 20)
+                                   .mapToObj(buildRandomUser(random, firstNamesSize, lastNamesSize))
+                                   .collect(Collectors.toList());
+        // JPA does not validate on persist, see CustomRepositoryRestConfigurerAdapter
+        Set<ConstraintViolation<User>> violations = users.stream()
+                                                         .flatMap(user -> validator.validate(user).stream())
+                                                         .collect(Collectors.toSet());
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        userRepository.saveAll(users);
+
+        log.info("Created {} demo users", userRepository.count());
+    }
 
-        userRepository.findAll().forEach(user -> log.info(user.toString()));
+    private boolean isPopulated() {
+        // a single row is enough, counting would read the whole table of a large store
+        return Boolean.TRUE.equals(
+                jdbcTemplate.query("SELECT 1 FROM user LIMIT 1", (ResultSetExtractor<Boolean>) ResultSet::next));
     }
 
     private IntFunction<User> buildRandomUser(Random random, int firstNamesSize, int lastNamesSize) {
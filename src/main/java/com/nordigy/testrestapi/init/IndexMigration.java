@@ -0,0 +1,37 @@
+package com.nordigy.testrestapi.init;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Brings the indexes of an existing database in line with the {@link com.nordigy.testrestapi.model.User} entity.
+ * Needed when the schema is not managed by Hibernate ({@code ddl-auto=none} or {@code validate}).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.schema.create-indexes", havingValue = "true")
+public class IndexMigration implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexMigration.class);
+
+    private final DataSource dataSource;
+
+    @Override
+    public void run(String... args) {
+        DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource("db/user-indexes.sql")),
+                dataSource);
+        log.info("User indexes are up to date");
+    }
+}
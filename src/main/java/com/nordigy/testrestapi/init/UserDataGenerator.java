@@ -0,0 +1,255 @@
+package com.nordigy.testrestapi.init;
+
+import com.nordigy.testrestapi.config.SeedProperties;
+import com.nordigy.testrestapi.config.SeedProperties.Distribution;
+import com.nordigy.testrestapi.model.User;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Seeds the user table with {@code app.seed.count} synthetic users, bypassing JPA.
+ * <p>
+ * The id range is cut into blocks of {@code app.seed.batch-size} rows that the worker threads take one at a time.
+ * Every block has its own random generator derived from the seed and the block number, so the data does not depend on
+ * the parallelism. Emails contain the id and are therefore unique. The id sequence is moved past the generated rows.
+ * <p>
+ * Rows are never seen by the validator, so the configured names and email domains are validated up front instead, in
+ * users born at both ends of the configured age range.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDataGenerator.class);
+
+    private static final String COLUMNS = "id, first_name, last_name, email, day_of_birth, version, last_modified_date";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SeedProperties properties;
+    private final Validator validator;
+
+    public void generate() {
+        long started = System.nanoTime();
+        long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM user", Long.class);
+        long endId = firstId + properties.getCount();
+        Generator generator = new Generator(properties, Timestamp.from(Instant.now()));
+        Set<ConstraintViolation<User>> violations = generator.samples(firstId).stream()
+                .flatMap(user -> validator.validate(user).stream())
+                .collect(Collectors.toSet());
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        AtomicLong nextBlock = new AtomicLong();
+        long blocks = (properties.getCount() + properties.getBatchSize() - 1) / properties.getBatchSize();
+
+        if (properties.isDeferIndexes()) {
+            Stream.of(User.LAST_NAME_FIRST_NAME_INDEX, User.FIRST_NAME_INDEX, User.DAY_OF_BIRTH_INDEX)
+                  .forEach(index -> jdbcTemplate.execute("DROP INDEX IF EXISTS " + index));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getParallelism());
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < properties.getParallelism(); i++) {
+                workers.add(executor.submit(() -> {
+                    for (long block = nextBlock.getAndIncrement(); block < blocks; block = nextBlock.getAndIncrement()) {
+                        long from = firstId + block * properties.getBatchSize();
+                        write(generator.rows(block, from, Math.min(from + properties.getBatchSize(), endId)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Seeding was interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Seeding failed", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (properties.isDeferIndexes()) {
+            new IndexMigration(jdbcTemplate.getDataSource()).run();
+        }
+        // the sequence hands out blocks of ID_ALLOCATION_SIZE ending at the returned value
+        restartSequence(endId + User.ID_ALLOCATION_SIZE);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Seeded {} users in {} ms ({} rows/s) with {} threads, {} mode", properties.getCount(), millis,
+                properties.getCount() * 1000L / Math.max(millis, 1), properties.getParallelism(), properties.getMode());
+    }
+
+    private void restartSequence(long value) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        // SQLite has no sequence, ids are the rowid and continue after the largest one by themselves
+        if (!"SQLite".equals(database)) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + User.ID_SEQUENCE + " RESTART WITH " + value);
+        }
+    }
+
+    private void write(List<Object[]> rows) throws IOException {
+        switch (properties.getMode()) {
+            case JDBC:
+                jdbcTemplate.batchUpdate("INSERT INTO user (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+                break;
+            case CSV:
+                Path file = Files.createTempFile("users", ".csv");
+                try {
+                    writeCsv(file, rows);
+                    // CSVREAD resolves its arguments while the statement is prepared, so no bind parameter here
+                    jdbcTemplate.update("INSERT INTO user (" + COLUMNS + ") SELECT * FROM CSVREAD('"
+                            + file.toString().replace("'", "''") + "')");
+                } finally {
+                    Files.delete(file);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown seed mode " + properties.getMode());
+        }
+    }
+
+    private static void writeCsv(Path file, List<Object[]> rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(COLUMNS.replace(" ", ""));
+            writer.newLine();
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(String.valueOf(row[i]));
+                }
+                writer.newLine();
+            }
+        }
+    }
+
+    private static final class Generator {
+
+        private final long seed;
+        private final Timestamp now;
+        private final Picker firstNames;
+        private final Picker lastNames;
+        private final List<String> emailDomains;
+        private final List<String> firstNameValues;
+        private final List<String> lastNameValues;
+        private final LocalDate oldest;
+        private final int birthdays;
+
+        Generator(SeedProperties properties, Timestamp now) {
+            this.seed = properties.getSeed();
+            this.now = now;
+            this.firstNames = new Picker(properties.getFirstNames(), properties.getNameDistribution());
+            this.lastNames = new Picker(properties.getLastNames(), properties.getNameDistribution());
+            this.emailDomains = properties.getEmailDomains();
+            this.firstNameValues = properties.getFirstNames();
+            this.lastNameValues = properties.getLastNames();
+            LocalDate today = LocalDate.now();
+            this.oldest = today.minusYears(properties.getMaxAge());
+            this.birthdays = (int) (today.minusYears(properties.getMinAge()).toEpochDay() - oldest.toEpochDay());
+        }
+
+        List<Object[]> rows(long block, long fromId, long toId) {
+            SplittableRandom random = new SplittableRandom(seed * 31 + block);
+            List<Object[]> rows = new ArrayList<>((int) (toId - fromId));
+            for (long id = fromId; id < toId; id++) {
+                String firstName = firstNames.pick(random);
+                String lastName = lastNames.pick(random);
+                String email = email(firstName, lastName, id, emailDomains.get(random.nextInt(emailDomains.size())));
+                // java.sql types bind the same way on every driver, SQLite has no mapping for java.time
+                Date dayOfBirth = Date.valueOf(oldest.plusDays(random.nextInt(birthdays)));
+                rows.add(new Object[] { id, firstName, lastName, email, dayOfBirth, 0, now });
+            }
+            return rows;
+        }
+
+        /**
+         * Users made of every configured name and email domain, together covering the oldest and the youngest
+         * birthday.
+         */
+        List<User> samples(long id) {
+            int count = Math.max(Math.max(firstNameValues.size(), lastNameValues.size()), emailDomains.size()) + 1;
+            List<User> samples = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String firstName = firstNameValues.get(i % firstNameValues.size());
+                String lastName = lastNameValues.get(i % lastNameValues.size());
+                samples.add(User.builder()
+                        .firstName(firstName)
+                        .lastName(lastName)
+                        .email(email(firstName, lastName, id, emailDomains.get(i % emailDomains.size())))
+                        .dayOfBirth(i % 2 == 0 ? oldest : oldest.plusDays(birthdays - 1))
+                        .build());
+            }
+            return samples;
+        }
+
+        private static String email(String firstName, String lastName, long id, String domain) {
+            return (firstName + "." + lastName + "." + id).toLowerCase(Locale.ROOT) + "@" + domain;
+        }
+    }
+
+    private static final class Picker {
+
+        private final List<String> values;
+        // cumulative weights, null for a uniform pick
+        private final double[] cumulative;
+
+        Picker(List<String> values, Distribution distribution) {
+            this.values = values;
+            if (distribution == Distribution.ZIPF) {
+                cumulative = new double[values.size()];
+                double total = 0;
+                for (int rank = 0; rank < cumulative.length; rank++) {
+                    total += 1.0 / (rank + 1);
+                    cumulative[rank] = total;
+                }
+                for (int rank = 0; rank < cumulative.length; rank++) {
+                    cumulative[rank] /= total;
+                }
+            } else {
+                cumulative = null;
+            }
+        }
+
+        String pick(SplittableRandom random) {
+            if (cumulative == null) {
+                return values.get(random.nextInt(values.size()));
+            }
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return values.get(Math.min(index < 0 ? -index - 1 : index, values.size() - 1));
+        }
+    }
+}
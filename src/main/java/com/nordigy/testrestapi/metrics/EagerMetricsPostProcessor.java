@@ -0,0 +1,32 @@
+package com.nordigy.testrestapi.metrics;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+
+/**
+ * Keeps the metrics auto-configuration eager under {@code spring.main.lazy-initialization}. Several of its
+ * configurations instrument the connection pool and the entity manager factory from an {@code @Autowired} method, so
+ * as lazy beans they would never run. Boot only leaves beans that are explicitly not lazy alone, and this runs before
+ * it marks the rest.
+ */
+public class EagerMetricsPostProcessor implements BeanDefinitionRegistryPostProcessor {
+
+    private static final String METRICS_AUTO_CONFIGURATION = "org.springframework.boot.actuate.autoconfigure.metrics.";
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+        for (String name : registry.getBeanDefinitionNames()) {
+            BeanDefinition definition = registry.getBeanDefinition(name);
+            String className = definition.getBeanClassName();
+            if (className != null && className.startsWith(METRICS_AUTO_CONFIGURATION)) {
+                definition.setLazyInit(false);
+            }
+        }
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+    }
+}
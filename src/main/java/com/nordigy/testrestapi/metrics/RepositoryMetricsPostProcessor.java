@@ -0,0 +1,43 @@
+package com.nordigy.testrestapi.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.Repository;
+
+import java.util.Arrays;
+
+/**
+ * Puts a {@link TimedRepositoryInterceptor} in front of every Spring Data repository proxy, so each repository method
+ * gets a {@code spring.data.repository.invocations} timer whether it is called by Spring Data REST or by our code.
+ */
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Repository && bean instanceof Advised) {
+            Advised repository = (Advised) bean;
+            Arrays.stream(repository.getProxiedInterfaces())
+                    .filter(Repository.class::isAssignableFrom)
+                    .findFirst()
+                    // in front of transaction handling and exception translation, so the timer covers them too
+                    .ifPresent(repositoryInterface -> repository.addAdvice(0,
+                            new TimedRepositoryInterceptor(meterRegistry.getObject(), repositoryInterface)));
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        // before request coalescing, whose advice goes in front of the timer
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+}
@@ -0,0 +1,43 @@
+package com.nordigy.testrestapi.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Times repository method invocations, tagged with the repository, the method, and the outcome.
+ */
+class TimedRepositoryInterceptor implements MethodInterceptor {
+
+    static final String METRIC_NAME = "spring.data.repository.invocations";
+
+    private final MeterRegistry meterRegistry;
+    private final String repository;
+
+    TimedRepositoryInterceptor(MeterRegistry meterRegistry, Class<?> repositoryInterface) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String state = "SUCCESS";
+        String exception = "none";
+        try {
+            return invocation.proceed();
+        } catch (Throwable ex) {
+            state = "ERROR";
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .tag("repository", repository)
+                    .tag("method", invocation.getMethod().getName())
+                    .tag("state", state)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
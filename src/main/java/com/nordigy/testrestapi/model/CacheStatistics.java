@@ -0,0 +1,17 @@
+package com.nordigy.testrestapi.model;
+
+import lombok.Data;
+
+/**
+ * Counters of one cache region. {@code evictions} are removals by the size or TTL policy, {@code invalidations} are
+ * explicit evictions after writes.
+ */
+@Data
+public class CacheStatistics {
+
+    private long hits;
+    private long misses;
+    private long puts;
+    private long evictions;
+    private long invalidations;
+}
@@ -0,0 +1,44 @@
+package com.nordigy.testrestapi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.Data;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
+
+/**
+ * Collection representation of a page that is not counted. Unlike {@link org.springframework.hateoas.PagedModel} it
+ * reports the total only when it was explicitly asked for, and the page number only when pages are numbered.
+ */
+public class SliceCollectionModel<T> extends RepresentationModel<SliceCollectionModel<T>> {
+
+    private final CollectionModel<T> content;
+    private final Metadata page;
+
+    public SliceCollectionModel(Iterable<T> content, Metadata page, Iterable<Link> links) {
+        this.content = CollectionModel.of(content);
+        this.page = page;
+        add(links);
+    }
+
+    @JsonUnwrapped
+    public CollectionModel<T> getContent() {
+        return content;
+    }
+
+    @JsonProperty("page")
+    public Metadata getPage() {
+        return page;
+    }
+
+    @Data
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Metadata {
+
+        private final long size;
+        private final Integer number;
+        private final Long totalElements;
+    }
+}
@@ -8,30 +8,59 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Past;
 import javax.validation.constraints.Size;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
+@Cacheable
+@EntityListeners(AuditingEntityListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@Table(indexes = {
+        @Index(name = User.LAST_NAME_FIRST_NAME_INDEX, columnList = "lastName, firstName"),
+        @Index(name = User.FIRST_NAME_INDEX, columnList = "firstName"),
+        @Index(name = User.DAY_OF_BIRTH_INDEX, columnList = "dayOfBirth")
+})
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
-@JsonIgnoreProperties(ignoreUnknown = true, value={ "id" }, allowGetters=true)
+@JsonIgnoreProperties(ignoreUnknown = true, value={ "id", "version", "lastModifiedDate" }, allowGetters=true)
 @Api(tags = "Users API 2")
 public class User {
 
+    public static final String CACHE_REGION = "users";
+
+    public static final String LAST_NAME_FIRST_NAME_INDEX = "idx_user_last_name_first_name";
+    public static final String FIRST_NAME_INDEX = "idx_user_first_name";
+    public static final String DAY_OF_BIRTH_INDEX = "idx_user_day_of_birth";
+
+    public static final String ID_SEQUENCE = "user_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @ApiModelProperty(hidden = true)
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     @NotBlank
     @Size(min = 2, max = 30)
@@ -50,4 +79,10 @@ public class User {
     @Past
     @NotNull
     private LocalDate dayOfBirth;
+    @ApiModelProperty(hidden = true)
+    @Version
+    private Long version;
+    @ApiModelProperty(hidden = true)
+    @LastModifiedDate
+    private Instant lastModifiedDate;
 }
\ No newline at end of file
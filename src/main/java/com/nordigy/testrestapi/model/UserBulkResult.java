@@ -0,0 +1,12 @@
+package com.nordigy.testrestapi.model;
+
+import lombok.Data;
+
+/**
+ * Answer to a bulk update or delete of users: the number of users it changed.
+ */
+@Data
+public class UserBulkResult {
+
+    private final long affected;
+}
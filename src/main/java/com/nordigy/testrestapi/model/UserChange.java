@@ -0,0 +1,26 @@
+package com.nordigy.testrestapi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * A write to a user as published on {@code /api/users/changes}. Created and updated users are sent in full, so that
+ * a client can apply the change without reading the user again.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserChange {
+
+    private final long sequence;
+    private final Type type;
+    private final long id;
+    private final Instant timestamp;
+    /** {@code null} for a deleted user. */
+    private final User user;
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
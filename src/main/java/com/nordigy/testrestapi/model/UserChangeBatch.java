@@ -0,0 +1,18 @@
+package com.nordigy.testrestapi.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Answer to a long poll of {@code /api/users/changes}: the changes after the requested sequence and the sequence to
+ * poll after next. With {@code reset} the requested sequence is no longer buffered, the client has to read the users
+ * again and then poll after {@code sequence}.
+ */
+@Data
+public class UserChangeBatch {
+
+    private final long sequence;
+    private final boolean reset;
+    private final List<UserChange> changes;
+}
@@ -0,0 +1,40 @@
+package com.nordigy.testrestapi.model;
+
+import com.nordigy.testrestapi.model.error.ValidationError;
+import lombok.Data;
+import org.hibernate.validator.internal.engine.path.PathImpl;
+
+import javax.validation.ConstraintViolation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Data
+public class UserImportResult {
+
+    private long imported;
+    private long rejected;
+    private List<ValidationError> errors = new ArrayList<>();
+
+    public void imported(int count) {
+        imported += count;
+    }
+
+    public void reject(int index, Collection<? extends ConstraintViolation<?>> violations) {
+        rejected++;
+        violations.forEach(violation -> errors.add(new ValidationError(
+                item(index),
+                ((PathImpl) violation.getPropertyPath()).getLeafNode().asString(),
+                violation.getInvalidValue(),
+                violation.getMessage())));
+    }
+
+    public void reject(int index, String field, Object rejectedValue, String message) {
+        rejected++;
+        errors.add(new ValidationError(item(index), field, rejectedValue, message));
+    }
+
+    private static String item(int index) {
+        return "users[" + index + "]";
+    }
+}
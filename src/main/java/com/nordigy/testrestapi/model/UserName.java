@@ -0,0 +1,16 @@
+package com.nordigy.testrestapi.model;
+
+import org.springframework.data.rest.core.config.Projection;
+
+/**
+ * Id and full name of a user, rendered by {@code GET /api/users?projection=name}.
+ */
+@Projection(name = "name", types = User.class)
+public interface UserName {
+
+    Long getId();
+
+    String getFirstName();
+
+    String getLastName();
+}
@@ -0,0 +1,26 @@
+package com.nordigy.testrestapi.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import org.springframework.data.domain.Page;
+import org.springframework.hateoas.PagedModel;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page of users in the shape Spring Data REST renders {@code /api/users}, without the links.
+ */
+@Data
+public class UserPage {
+
+    @JsonProperty("_embedded")
+    private final Map<String, List<User>> embedded;
+    private final PagedModel.PageMetadata page;
+
+    public static UserPage of(Page<User> page) {
+        return new UserPage(Map.of("users", page.getContent()),
+                new PagedModel.PageMetadata(page.getSize(), page.getNumber(), page.getTotalElements(),
+                        page.getTotalPages()));
+    }
+}
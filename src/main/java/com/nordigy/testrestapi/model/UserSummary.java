@@ -0,0 +1,15 @@
+package com.nordigy.testrestapi.model;
+
+import org.springframework.data.rest.core.config.Projection;
+
+/**
+ * Id and email of a user, rendered by {@code GET /api/users?projection=summary}. The users are still loaded as
+ * entities, {@code fields=id,email} selects only the two columns.
+ */
+@Projection(name = "summary", types = User.class)
+public interface UserSummary {
+
+    Long getId();
+
+    String getEmail();
+}
@@ -8,9 +8,12 @@ import org.springframework.validation.FieldError;
 import org.springframework.validation.ObjectError;
 
 import javax.validation.ConstraintViolation;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 @Data
@@ -24,7 +27,7 @@ public class ErrorResponse {
     private List<ValidationError> subErrors;
 
     private ErrorResponse() {
-        timestamp = LocalDateTime.now();
+        timestamp = Timestamp.now();
     }
 
     public static Builder builder() {
@@ -55,11 +58,21 @@ public class ErrorResponse {
             return this;
         }
 
+        /**
+         * Appends the errors; the list is sized for the first non-empty collection, and an empty one (usually the
+         * global errors after the field errors) allocates nothing.
+         */
         public Builder subErrors(Collection<?> errors) {
-            if (this.subErrors == null) {
-                this.subErrors = new ArrayList<>();
+            if (errors.isEmpty()) {
+                if (this.subErrors == null) {
+                    this.subErrors = Collections.emptyList();
+                }
+                return this;
+            }
+            if (this.subErrors == null || this.subErrors.isEmpty()) {
+                this.subErrors = new ArrayList<>(errors.size());
             }
-            errors.forEach(error -> {
+            for (Object error : errors) {
                 ValidationError validationError;
                 if (error instanceof FieldError) {
                     validationError = buildValidationError((FieldError) error);
@@ -71,7 +84,7 @@ public class ErrorResponse {
                     throw new RuntimeException("Wrong error format");
                 }
                 subErrors.add(validationError);
-            });
+            }
             return this;
         }
 
@@ -106,4 +119,31 @@ public class ErrorResponse {
             return errorResponse;
         }
     }
+
+    /**
+     * The current time at the one-second resolution of the {@code timestamp} format, created once per second rather
+     * than once per response.
+     */
+    private static final class Timestamp {
+
+        private static volatile Timestamp current = new Timestamp(System.currentTimeMillis() / 1000);
+
+        private final long second;
+        private final LocalDateTime value;
+
+        private Timestamp(long second) {
+            this.second = second;
+            this.value = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault());
+        }
+
+        static LocalDateTime now() {
+            long second = System.currentTimeMillis() / 1000;
+            Timestamp timestamp = current;
+            if (timestamp.second != second) {
+                timestamp = new Timestamp(second);
+                current = timestamp;
+            }
+            return timestamp.value;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.nordigy.testrestapi.repository;
+
+import com.nordigy.testrestapi.model.User;
+import com.querydsl.core.types.Predicate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpMethod;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lets concurrent identical reads share one repository call (single flight): the first caller runs the query, callers
+ * with the same method and arguments that arrive while it runs wait for it and get the same result or exception.
+ * <p>
+ * Only {@code findById} and the paged {@code findAll} with or without a predicate and count mode are coalesced, and
+ * only for {@code GET} and {@code HEAD} requests outside a transaction: those callers just render the result, while a
+ * write would modify the entity it got, and a caller in a transaction expects its own view of the data. The entities
+ * belong to the persistence context of the first caller, so every waiting caller gets its own detached copies to
+ * render.
+ * <p>
+ * A caller waits at most {@code app.coalescing.wait-timeout} and then runs the query itself, so a stuck query does not
+ * hold up every identical request behind it.
+ * <p>
+ * A write through the repository forgets the reads in flight once it commits, so a read that starts after a write
+ * never gets a result that was queried before it.
+ */
+public class CoalescingRepositoryInterceptor implements MethodInterceptor {
+
+    static final String METRIC_NAME = "users.repository.reads";
+
+    private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final long waitTimeoutNanos;
+    private final Map<String, Counter> executed;
+    private final Map<String, Counter> coalesced;
+    private final Map<String, Counter> timedOut;
+
+    public CoalescingRepositoryInterceptor(MeterRegistry meterRegistry, Duration waitTimeout) {
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.executed = Map.of(
+                "findById", counter(meterRegistry, "findById", "executed"),
+                "findAll", counter(meterRegistry, "findAll", "executed"));
+        this.coalesced = Map.of(
+                "findById", counter(meterRegistry, "findById", "coalesced"),
+                "findAll", counter(meterRegistry, "findAll", "coalesced"));
+        this.timedOut = Map.of(
+                "findById", counter(meterRegistry, "findById", "timed-out"),
+                "findAll", counter(meterRegistry, "findAll", "timed-out"));
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (isWrite(method)) {
+            try {
+                return invocation.proceed();
+            } finally {
+                forgetInFlight();
+            }
+        }
+        if (!isCoalesced(method) || !isSafeRequest() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+
+        Object[] arguments = invocation.getArguments();
+        Object[] key = Arrays.copyOf(arguments, arguments.length + 1);
+        key[arguments.length] = method.getName();
+        List<Object> call = Arrays.asList(key);
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(call, result);
+        if (running != null) {
+            coalesced.get(method.getName()).increment();
+            try {
+                return detached(running.get(waitTimeoutNanos, TimeUnit.NANOSECONDS));
+            } catch (ExecutionException ex) {
+                throw ex.getCause();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw ex;
+            } catch (TimeoutException ex) {
+                timedOut.get(method.getName()).increment();
+                return invocation.proceed();
+            }
+        }
+
+        executed.get(method.getName()).increment();
+        try {
+            Object value = invocation.proceed();
+            result.complete(value);
+            return value;
+        } catch (Throwable ex) {
+            result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(call, result);
+        }
+    }
+
+    /**
+     * Copies of the users in a result of {@code findById} or {@code findAll}, outside any persistence context.
+     */
+    private static Object detached(Object result) {
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).map(CoalescingRepositoryInterceptor::detached);
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).map(CoalescingRepositoryInterceptor::detached);
+        }
+        return result instanceof User ? ((User) result).toBuilder().build() : result;
+    }
+
+    private void forgetInFlight() {
+        inFlight.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    inFlight.clear();
+                }
+            });
+        }
+    }
+
+    private static boolean isWrite(Method method) {
+        return method.getName().startsWith("save") || method.getName().startsWith("update")
+                || method.getName().startsWith("delete");
+    }
+
+    private static boolean isCoalesced(Method method) {
+        Class<?>[] parameters = method.getParameterTypes();
+        switch (method.getName()) {
+            case "findById":
+                return parameters.length == 1;
+            case "findAll":
+                return parameters.length == 1 && Pageable.class.equals(parameters[0])
+                        || parameters.length >= 2 && Predicate.class.equals(parameters[0])
+                        && Pageable.class.equals(parameters[1])
+                        && (parameters.length == 2 || parameters.length == 3 && CountMode.class.equals(parameters[2]));
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isSafeRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return false;
+        }
+        String method = ((ServletRequestAttributes) attributes).getRequest().getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String method, String outcome) {
+        return Counter.builder(METRIC_NAME)
+                .description("Coalescible repository reads, executed or served by a concurrent identical read")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,40 @@
+package com.nordigy.testrestapi.repository;
+
+import com.nordigy.testrestapi.config.CoalescingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+/**
+ * Puts a {@link CoalescingRepositoryInterceptor} in front of the {@link UserRepository} proxy.
+ * <p>
+ * Runs after the other repository post-processors, so the advice ends up first in the chain and a coalesced read is
+ * not counted as a repository invocation.
+ */
+public class CoalescingRepositoryPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ObjectProvider<CoalescingProperties> properties;
+
+    public CoalescingRepositoryPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                             ObjectProvider<CoalescingProperties> properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof UserRepository && bean instanceof Advised) {
+            ((Advised) bean).addAdvice(0, new CoalescingRepositoryInterceptor(meterRegistry.getObject(),
+                    properties.getObject().getWaitTimeout()));
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
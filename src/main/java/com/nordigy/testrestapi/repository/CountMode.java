@@ -0,0 +1,24 @@
+package com.nordigy.testrestapi.repository;
+
+/**
+ * How the total of a page of users is counted, chosen by the {@code count} parameter of the users collection.
+ */
+public enum CountMode {
+
+    /**
+     * The exact total, taken from {@link UserCounter} where it has one ({@code count=exact}, the default).
+     */
+    EXACT,
+
+    /**
+     * The exact total up to {@code app.count.estimate-limit} and one more than that beyond it
+     * ({@code count=estimate}).
+     */
+    ESTIMATE,
+
+    /**
+     * No count query at all ({@code count=false}): one more row than the page is read to tell whether there is a next
+     * page, and the result is a {@link org.springframework.data.domain.Slice} without a total.
+     */
+    NONE;
+}
@@ -0,0 +1,161 @@
+package com.nordigy.testrestapi.repository;
+
+import com.nordigy.testrestapi.model.User;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking access to the user table over R2DBC, next to the JPA {@link UserRepository} on the same database.
+ * <p>
+ * Ids come from the sequence Hibernate uses. Hibernate takes a block of {@link User#ID_ALLOCATION_SIZE} ids ending at
+ * every value it draws, so a value drawn here is never handed out by Hibernate. Writes made here do not go through the
+ * persistence context; {@link com.nordigy.testrestapi.api.ReactiveUserController} announces them with the repository
+ * events instead.
+ * <p>
+ * Every statement is subscribed to on the given scheduler, since the driver runs it on the subscribing thread.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveUserRepository {
+
+    /**
+     * Columns of the properties users can be filtered and sorted by.
+     */
+    public static final Map<String, String> COLUMNS = Map.of(
+            "id", "id",
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "email", "email",
+            "dayOfBirth", "day_of_birth");
+
+    private static final String SELECT = "SELECT id, first_name, last_name, email, day_of_birth, version,"
+            + " last_modified_date FROM user";
+
+    private final DatabaseClient databaseClient;
+    private final Scheduler scheduler;
+
+    public Mono<User> findById(long id) {
+        return databaseClient.execute(SELECT + " WHERE id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> toUser(row))
+                .one()
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Page of users whose properties equal the given values, keyed by the property names of {@link #COLUMNS}.
+     */
+    public Mono<Page<User>> findAll(Map<String, Object> filter, Pageable pageable) {
+        String where = filter.isEmpty() ? "" : filter.keySet().stream()
+                .map(property -> COLUMNS.get(property) + " = :" + property)
+                .collect(Collectors.joining(" AND ", " WHERE ", ""));
+        String orderBy = pageable.getSort().isUnsorted() ? " ORDER BY id" : pageable.getSort().stream()
+                .map(order -> COLUMNS.get(order.getProperty()) + (order.isAscending() ? " ASC" : " DESC"))
+                .collect(Collectors.joining(", ", " ORDER BY ", ""));
+
+        DatabaseClient.GenericExecuteSpec content = databaseClient.execute(
+                SELECT + where + orderBy + " LIMIT :limit OFFSET :offset")
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset());
+        DatabaseClient.GenericExecuteSpec count = databaseClient.execute("SELECT COUNT(*) FROM user" + where);
+        for (Map.Entry<String, Object> entry : filter.entrySet()) {
+            content = content.bind(entry.getKey(), entry.getValue());
+            count = count.bind(entry.getKey(), entry.getValue());
+        }
+        return Mono.zip(content.map((row, metadata) -> toUser(row)).all().collectList(),
+                count.map((row, metadata) -> row.get(0, Long.class)).one())
+                .<Page<User>>map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()))
+                .subscribeOn(scheduler);
+    }
+
+    public Mono<User> insert(User user) {
+        Instant now = Instant.now();
+        return databaseClient.execute("SELECT NEXT VALUE FOR " + User.ID_SEQUENCE)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> databaseClient.execute("INSERT INTO user (id, first_name, last_name, email,"
+                        + " day_of_birth, version, last_modified_date) VALUES (:id, :firstName, :lastName, :email,"
+                        + " :dayOfBirth, 0, :lastModifiedDate)")
+                        .bind("id", id)
+                        .bind("firstName", user.getFirstName())
+                        .bind("lastName", user.getLastName())
+                        .bind("email", user.getEmail())
+                        .bind("dayOfBirth", user.getDayOfBirth())
+                        .bind("lastModifiedDate", toDatabase(now))
+                        .then()
+                        .thenReturn(user.toBuilder().id(id).version(0L).lastModifiedDate(now).build()))
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Replaces the properties of the user with the id of the given one, only if it is still at {@code version} unless
+     * that is {@code null}. Empty if there is no such user or it is at another version.
+     */
+    public Mono<User> update(User user, Long version) {
+        Instant now = Instant.now();
+        DatabaseClient.GenericExecuteSpec update = databaseClient.execute("UPDATE user SET first_name = :firstName,"
+                + " last_name = :lastName, email = :email, day_of_birth = :dayOfBirth, version = version + 1,"
+                + " last_modified_date = :lastModifiedDate WHERE id = :id"
+                + (version != null ? " AND version = :version" : ""));
+        if (version != null) {
+            update = update.bind("version", version);
+        }
+        return update
+                .bind("id", user.getId())
+                .bind("firstName", user.getFirstName())
+                .bind("lastName", user.getLastName())
+                .bind("email", user.getEmail())
+                .bind("dayOfBirth", user.getDayOfBirth())
+                .bind("lastModifiedDate", toDatabase(now))
+                .fetch()
+                .rowsUpdated()
+                .filter(updated -> updated > 0)
+                .flatMap(updated -> findById(user.getId()))
+                .subscribeOn(scheduler);
+    }
+
+    public Mono<Boolean> deleteById(long id) {
+        return databaseClient.execute("DELETE FROM user WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .map(deleted -> deleted > 0)
+                .subscribeOn(scheduler);
+    }
+
+    private static User toUser(Row row) {
+        LocalDateTime lastModifiedDate = row.get("last_modified_date", LocalDateTime.class);
+        return User.builder()
+                .id(row.get("id", Long.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .email(row.get("email", String.class))
+                .dayOfBirth(row.get("day_of_birth", LocalDate.class))
+                .version(row.get("version", Long.class))
+                .lastModifiedDate(lastModifiedDate == null ? null
+                        : lastModifiedDate.atZone(ZoneId.systemDefault()).toInstant())
+                .build();
+    }
+
+    // Hibernate keeps Instant columns as timestamps in the JVM time zone
+    private static LocalDateTime toDatabase(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,196 @@
+package com.nordigy.testrestapi.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nordigy.testrestapi.config.CountProperties;
+import com.nordigy.testrestapi.model.QUser;
+import com.nordigy.testrestapi.model.User;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Totals of user listings, so that a page does not always pay for a {@code count(*)}.
+ * <p>
+ * The total of the whole table is counted once and then kept up to date from the Spring Data REST create and delete
+ * events (also published by the import and the reactive API), and counted again every
+ * {@code app.count.resync-interval} to catch writes that bypass them, like those of another instance. The bulk
+ * endpoints call {@link #resync()} instead.
+ * <p>
+ * Totals of filtered listings are cached for {@code app.count.cache-ttl} under the filter with its conditions in a
+ * fixed order, so {@code ?a=1&b=2} and {@code ?b=2&a=1} share an entry. Any write event drops them all, since a write
+ * may move users in and out of any filter; the time to live bounds how stale they get through other writes.
+ */
+@Component
+@RepositoryEventHandler
+public class UserCounter {
+
+    private static final QUser user = QUser.user;
+
+    private final EntityManager entityManager;
+    private final CountProperties properties;
+    private final Cache<String, Long> filtered;
+    private final long resyncNanos;
+    // users created minus users deleted according to the events, since startup
+    private final AtomicLong changes = new AtomicLong();
+    private volatile Snapshot counted;
+
+    public UserCounter(EntityManager entityManager, CountProperties properties, MeterRegistry meterRegistry) {
+        this.entityManager = entityManager;
+        this.properties = properties;
+        this.resyncNanos = properties.getResyncInterval().toNanos();
+        if (properties.getCacheTtl().isZero()) {
+            this.filtered = null;
+        } else {
+            this.filtered = Caffeine.newBuilder()
+                    .expireAfterWrite(properties.getCacheTtl())
+                    .maximumSize(properties.getCacheSize())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, filtered, "userCounts");
+        }
+    }
+
+    /**
+     * Returns the number of users matching the predicate, which may be {@code null} for all users.
+     */
+    public long count(Predicate predicate, CountMode mode) {
+        return count(predicate, mode, 0);
+    }
+
+    /**
+     * Returns the number of users matching the predicate, which may be {@code null} for all users. An estimate counts
+     * up to {@code app.count.estimate-limit} or {@code covered}, whichever is larger, and reports a larger total as
+     * one more than that, so that a page ending at {@code covered} still has a next one.
+     */
+    public long count(Predicate predicate, CountMode mode, long covered) {
+        String key = key(predicate);
+        if (key.isEmpty()) {
+            return total();
+        }
+        if (mode == CountMode.ESTIMATE) {
+            Long cached = filtered != null ? filtered.getIfPresent(key) : null;
+            return cached != null ? cached : countUpTo(predicate, Math.max(properties.getEstimateLimit(), covered));
+        }
+        return filtered != null ? filtered.get(key, ignored -> count(predicate)) : count(predicate);
+    }
+
+    long total() {
+        Snapshot snapshot = counted;
+        if (snapshot == null || System.nanoTime() - snapshot.countedAt > resyncNanos) {
+            synchronized (this) {
+                snapshot = counted;
+                if (snapshot == null || System.nanoTime() - snapshot.countedAt > resyncNanos) {
+                    // taken before the query, so that an event arriving while it runs is added on top of it
+                    long changesBefore = changes.get();
+                    snapshot = new Snapshot(count(null), changesBefore, System.nanoTime());
+                    counted = snapshot;
+                }
+            }
+        }
+        return snapshot.total + changes.get() - snapshot.changes;
+    }
+
+    @HandleAfterCreate
+    public void created(User created) {
+        changes.incrementAndGet();
+        invalidateFiltered();
+    }
+
+    @HandleAfterSave
+    public void saved(User saved) {
+        invalidateFiltered();
+    }
+
+    @HandleAfterDelete
+    public void deleted(User deleted) {
+        changes.decrementAndGet();
+        invalidateFiltered();
+    }
+
+    /**
+     * Forgets every total, so that the next listing counts the table again, for writes that are not announced by
+     * events.
+     */
+    public synchronized void resync() {
+        counted = null;
+        invalidateFiltered();
+    }
+
+    private void invalidateFiltered() {
+        if (filtered != null) {
+            filtered.invalidateAll();
+        }
+    }
+
+    private long count(Predicate predicate) {
+        return new JPAQuery<>(entityManager).from(user).where(predicate).fetchCount();
+    }
+
+    /**
+     * The exact number of users matching the predicate if there are at most {@code limit}, otherwise
+     * {@code limit + 1}. Neither query reads more than {@code limit + 1} rows or returns more than one.
+     */
+    private long countUpTo(Predicate predicate, long limit) {
+        Long beyond = new JPAQuery<>(entityManager).select(user.id).from(user).where(predicate)
+                .offset(limit)
+                .fetchFirst();
+        return beyond != null ? limit + 1 : count(predicate);
+    }
+
+    /**
+     * The conditions of the predicate in a fixed order, empty when it has none.
+     */
+    static String key(Predicate predicate) {
+        List<String> conditions = new ArrayList<>();
+        collect(predicate, conditions);
+        Collections.sort(conditions);
+        return String.join(" && ", conditions);
+    }
+
+    private static void collect(Expression<?> expression, List<String> conditions) {
+        if (expression instanceof BooleanBuilder) {
+            expression = ((BooleanBuilder) expression).getValue();
+        }
+        if (expression == null) {
+            return;
+        }
+        if (expression instanceof Operation && ((Operation<?>) expression).getOperator() == Ops.AND) {
+            ((Operation<?>) expression).getArgs().forEach(argument -> collect(argument, conditions));
+        } else {
+            conditions.add(expression.toString());
+        }
+    }
+
+    /**
+     * A count of the whole table and the value of {@code changes} when it was started.
+     */
+    private static final class Snapshot {
+
+        private final long total;
+        private final long changes;
+        private final long countedAt;
+
+        Snapshot(long total, long changes, long countedAt) {
+            this.total = total;
+            this.changes = changes;
+            this.countedAt = countedAt;
+        }
+    }
+}
@@ -1,10 +1,34 @@
 package com.nordigy.testrestapi.repository;
 
 import com.nordigy.testrestapi.model.User;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+
 @Repository
-public interface UserRepository extends PagingAndSortingRepository<User, Long>, QuerydslPredicateExecutor<User> {
-}
\ No newline at end of file
+public interface UserRepository extends PagingAndSortingRepository<User, Long>, QuerydslPredicateExecutor<User>,
+        UserRepositoryCustom {
+
+    // Filtered collection lookups go to the query cache when it is enabled ('cache' profile), otherwise the hint is
+    // ignored. Pages are read by UserRepositoryImpl, which sets the hint itself.
+
+    @Override
+    Page<User> findAll(Predicate predicate, Pageable pageable);
+
+    @Override
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
+    Iterable<User> findAll(Predicate predicate, Sort sort);
+
+    @Override
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
+    long count(Predicate predicate);
+}
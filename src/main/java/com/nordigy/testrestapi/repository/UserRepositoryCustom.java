@@ -0,0 +1,70 @@
+package com.nordigy.testrestapi.repository;
+
+import com.nordigy.testrestapi.model.User;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Streams all users ordered by id through a forward-only cursor. Must be consumed inside a transaction and
+     * closed afterwards.
+     */
+    Stream<User> streamAll(int fetchSize);
+
+    /**
+     * Returns a page of users with the exact total, see {@link #findAll(Predicate, Pageable, CountMode)}.
+     */
+    Page<User> findAll(Pageable pageable);
+
+    /**
+     * Returns a page of users matching the predicate with the exact total, see
+     * {@link #findAll(Predicate, Pageable, CountMode)}.
+     */
+    Page<User> findAll(Predicate predicate, Pageable pageable);
+
+    /**
+     * Returns a page of users matching the predicate, which may be {@code null}. The total is counted as the mode
+     * asks: the result is a {@link Page} unless the mode is {@link CountMode#NONE}.
+     */
+    Slice<User> findAll(Predicate predicate, Pageable pageable, CountMode mode);
+
+    /**
+     * Returns at most {@code limit} users matching the predicate, without issuing a count query.
+     */
+    List<User> findAll(Predicate predicate, Sort sort, long limit);
+
+    /**
+     * Returns a page of users matching the predicate with only the given properties, selected as columns instead of
+     * loading the entities. Every row maps the property names, in the given order, to their values. The total is
+     * counted as for {@link #findAll(Predicate, Pageable, CountMode)}.
+     */
+    Slice<Map<String, Object>> findAll(Predicate predicate, Pageable pageable, List<String> properties,
+                                       CountMode mode);
+
+    /**
+     * Returns the ids of at most {@code limit} users matching the predicate and locks their rows until the end of the
+     * transaction.
+     */
+    List<Long> findIdsForUpdate(Predicate predicate, long limit);
+
+    /**
+     * Sets the given properties of all users matching the predicate in a single statement, bumping their version and
+     * last modification date, and returns the number of updated users. Bypasses the persistence context.
+     */
+    long updateAll(Predicate predicate, Map<Path<?>, Object> values);
+
+    /**
+     * Deletes all users matching the predicate in a single statement and returns their number. Bypasses the
+     * persistence context.
+     */
+    long deleteAll(Predicate predicate);
+}
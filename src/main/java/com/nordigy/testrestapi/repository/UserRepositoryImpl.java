@@ -0,0 +1,145 @@
+package com.nordigy.testrestapi.repository;
+
+import com.nordigy.testrestapi.model.QUser;
+import com.nordigy.testrestapi.model.User;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPADeleteClause;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final QUser user = QUser.user;
+    private static final PathBuilder<User> userPath = new PathBuilder<>(User.class, user.getMetadata());
+
+    private final EntityManager entityManager;
+    private final Querydsl querydsl;
+    private final UserCounter userCounter;
+
+    public UserRepositoryImpl(EntityManager entityManager, UserCounter userCounter) {
+        this.entityManager = entityManager;
+        this.querydsl = new Querydsl(entityManager, userPath);
+        this.userCounter = userCounter;
+    }
+
+    @Override
+    public Page<User> findAll(Pageable pageable) {
+        return findAll(null, pageable);
+    }
+
+    @Override
+    public Page<User> findAll(Predicate predicate, Pageable pageable) {
+        return (Page<User>) findAll(predicate, pageable, CountMode.EXACT);
+    }
+
+    @Override
+    public Slice<User> findAll(Predicate predicate, Pageable pageable, CountMode mode) {
+        JPQLQuery<User> query = new JPAQuery<>(entityManager)
+                .select(user)
+                .from(user)
+                .where(predicate)
+                .setHint(QueryHints.HINT_CACHEABLE, true);
+        return page(query, predicate, pageable, mode);
+    }
+
+    @Override
+    public Stream<User> streamAll(int fetchSize) {
+        return entityManager.createQuery("select u from User u order by u.id", User.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<User> findAll(Predicate predicate, Sort sort, long limit) {
+        JPQLQuery<User> query = new JPAQuery<>(entityManager)
+                .select(user)
+                .from(user)
+                .where(predicate)
+                .limit(limit);
+        return querydsl.applySorting(sort, query).fetch();
+    }
+
+    @Override
+    public Slice<Map<String, Object>> findAll(Predicate predicate, Pageable pageable, List<String> properties,
+                                              CountMode mode) {
+        Expression<?>[] columns = properties.stream().map(userPath::get).toArray(Expression[]::new);
+        JPQLQuery<Tuple> query = new JPAQuery<>(entityManager)
+                .select(columns)
+                .from(user)
+                .where(predicate);
+        return page(query, predicate, pageable, mode).map(tuple -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < columns.length; i++) {
+                row.put(properties.get(i), tuple.get(columns[i]));
+            }
+            return row;
+        });
+    }
+
+    @Override
+    public List<Long> findIdsForUpdate(Predicate predicate, long limit) {
+        return new JPAQuery<>(entityManager)
+                .select(user.id)
+                .from(user)
+                .where(predicate)
+                .orderBy(user.id.asc())
+                .limit(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetch();
+    }
+
+    @Override
+    public long updateAll(Predicate predicate, Map<Path<?>, Object> values) {
+        return new JPAUpdateClause(entityManager, user)
+                .set(new ArrayList<>(values.keySet()), new ArrayList<>(values.values()))
+                .set(user.version, user.version.add(1L))
+                .set(user.lastModifiedDate, Instant.now())
+                .where(predicate)
+                .execute();
+    }
+
+    @Override
+    public long deleteAll(Predicate predicate) {
+        return new JPADeleteClause(entityManager, user)
+                .where(predicate)
+                .execute();
+    }
+
+    private <T> Slice<T> page(JPQLQuery<T> query, Predicate predicate, Pageable pageable, CountMode mode) {
+        if (mode == CountMode.NONE && pageable.isPaged()) {
+            // one row more than the page tells whether there is a next one
+            List<T> rows = querydsl.applySorting(pageable.getSort(), query)
+                    .offset(pageable.getOffset())
+                    .limit(pageable.getPageSize() + 1L)
+                    .fetch();
+            boolean hasNext = rows.size() > pageable.getPageSize();
+            return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+        }
+        List<T> content = querydsl.applyPagination(pageable, query).fetch();
+        long covered = pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() : 0;
+        return PageableExecutionUtils.getPage(content, pageable, () -> userCounter.count(predicate, mode, covered));
+    }
+}
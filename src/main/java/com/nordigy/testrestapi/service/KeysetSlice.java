@@ -0,0 +1,18 @@
+package com.nordigy.testrestapi.service;
+
+import com.nordigy.testrestapi.model.User;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A window of users returned by keyset pagination together with the cursors of its neighbours. A missing cursor
+ * means there is nothing to fetch in that direction.
+ */
+@Data
+public class KeysetSlice {
+
+    private final List<User> content;
+    private final String nextCursor;
+    private final String previousCursor;
+}
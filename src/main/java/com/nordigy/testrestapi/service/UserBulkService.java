@@ -0,0 +1,135 @@
+package com.nordigy.testrestapi.service;
+
+import com.nordigy.testrestapi.config.BulkProperties;
+import com.nordigy.testrestapi.exception.BulkRequestRejectedException;
+import com.nordigy.testrestapi.model.QUser;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.UserCounter;
+import com.nordigy.testrestapi.repository.UserRepository;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Updates and deletes all users matching a filter with a single statement each, without loading them into the
+ * persistence context.
+ * <p>
+ * The statements bypass the Spring Data REST events, so afterwards the in-memory views of the table are refreshed as
+ * a whole, once per request: the search index is read again, the totals are counted again, the second-level cache is
+ * evicted and the collection ETag changes. The change feed does not see bulk writes.
+ * <p>
+ * Emails are unique, so setting one on more than a single user is refused before anything is written. Setting
+ * {@code app.bulk.max-users} refuses filters matching more users than that.
+ */
+@Service
+public class UserBulkService {
+
+    private static final QUser user = QUser.user;
+
+    /**
+     * Properties a bulk update may set.
+     */
+    private static final List<Path<?>> PROPERTIES = List.of(user.firstName, user.lastName, user.email,
+            user.dayOfBirth);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final BulkProperties properties;
+    private final UserCounter userCounter;
+    private final UserCollectionVersion collectionVersion;
+    private final ObjectProvider<UserSearchIndex> searchIndex;
+    private final ObjectProvider<UserCache> userCache;
+
+    public UserBulkService(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                           Validator validator, BulkProperties properties, UserCounter userCounter,
+                           UserCollectionVersion collectionVersion, ObjectProvider<UserSearchIndex> searchIndex,
+                           ObjectProvider<UserCache> userCache) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.properties = properties;
+        this.userCounter = userCounter;
+        this.collectionVersion = collectionVersion;
+        this.searchIndex = searchIndex;
+        this.userCache = userCache;
+    }
+
+    /**
+     * Sets the non-null properties of {@code changes} on every user matching the predicate, after validating them
+     * against the {@link User} constraints.
+     */
+    public long update(Predicate predicate, User changes) {
+        BeanWrapper source = PropertyAccessorFactory.forBeanPropertyAccess(changes);
+        Map<Path<?>, Object> values = new LinkedHashMap<>();
+        Set<ConstraintViolation<User>> violations = new LinkedHashSet<>();
+        for (Path<?> path : PROPERTIES) {
+            String name = path.getMetadata().getName();
+            Object value = source.getPropertyValue(name);
+            if (value != null) {
+                values.put(path, value);
+                violations.addAll(validator.validateProperty(changes, name));
+            }
+        }
+        if (values.isEmpty()) {
+            throw new BulkRequestRejectedException("Nothing to update, set some of " + PROPERTIES.stream()
+                    .map(path -> path.getMetadata().getName())
+                    .collect(Collectors.toList()));
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        long updated = transactionTemplate.execute(status -> {
+            checkLimit(predicate);
+            if (values.containsKey(user.email) && userRepository.findIdsForUpdate(predicate, 2).size() > 1) {
+                throw new BulkRequestRejectedException("The filter matches more than one user, an email can only"
+                        + " be set on one");
+            }
+            return userRepository.updateAll(predicate, values);
+        });
+        return refreshed(updated);
+    }
+
+    public long delete(Predicate predicate) {
+        long deleted = transactionTemplate.execute(status -> {
+            checkLimit(predicate);
+            return userRepository.deleteAll(predicate);
+        });
+        return refreshed(deleted);
+    }
+
+    private void checkLimit(Predicate predicate) {
+        if (properties.getMaxUsers() > 0
+                && userRepository.findIdsForUpdate(predicate, properties.getMaxUsers() + 1L).size()
+                > properties.getMaxUsers()) {
+            throw new BulkRequestRejectedException("The filter matches more than " + properties.getMaxUsers()
+                    + " users, narrow it down");
+        }
+    }
+
+    private long refreshed(long changed) {
+        if (changed > 0) {
+            searchIndex.ifAvailable(UserSearchIndex::reload);
+            userCache.ifAvailable(UserCache::evictAll);
+            userCounter.resync();
+            collectionVersion.bump();
+        }
+        return changed;
+    }
+}
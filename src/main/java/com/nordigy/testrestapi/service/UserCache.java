@@ -0,0 +1,110 @@
+package com.nordigy.testrestapi.service;
+
+import com.nordigy.testrestapi.model.CacheStatistics;
+import com.nordigy.testrestapi.model.User;
+import org.hibernate.Cache;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the second-level and query cache of users in step with writes announced by Spring Data REST events, and
+ * reports the counters of its regions. Hibernate already maintains the entity region for writes going through the
+ * session; explicit eviction also covers anything that changes the table behind its back.
+ */
+@Component
+@RepositoryEventHandler
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class UserCache {
+
+    private static final List<String> REGIONS = List.of(User.CACHE_REGION,
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+            RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME);
+
+    private final Cache cache;
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    private final Map<String, AtomicLong> invalidations = new LinkedHashMap<>();
+
+    public UserCache(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        REGIONS.forEach(region -> invalidations.put(region, new AtomicLong()));
+    }
+
+    @HandleAfterCreate
+    public void afterCreate(User user) {
+        evictQueries();
+    }
+
+    @HandleAfterSave
+    public void afterSave(User user) {
+        evict(user);
+        evictQueries();
+    }
+
+    @HandleAfterDelete
+    public void afterDelete(User user) {
+        evict(user);
+        evictQueries();
+    }
+
+    /**
+     * Evicts every user and cached query, for writes to the table that are not announced by events.
+     */
+    public void evictAll() {
+        cache.evictEntityData(User.class);
+        invalidations.get(User.CACHE_REGION).incrementAndGet();
+        evictQueries();
+    }
+
+    private void evict(User user) {
+        cache.evictEntityData(User.class, user.getId());
+        invalidations.get(User.CACHE_REGION).incrementAndGet();
+    }
+
+    private void evictQueries() {
+        cache.evictDefaultQueryRegion();
+        invalidations.get(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME).incrementAndGet();
+    }
+
+    /**
+     * Counters per region, read from the JSR-107 statistics MXBeans of the underlying caches.
+     */
+    public Map<String, CacheStatistics> statistics() {
+        Map<String, CacheStatistics> statistics = new LinkedHashMap<>();
+        for (String region : REGIONS) {
+            CacheStatistics regionStatistics = new CacheStatistics();
+            try {
+                for (ObjectName name : mBeanServer.queryNames(
+                        new ObjectName("javax.cache:type=CacheStatistics,CacheManager=*,Cache=" + region), null)) {
+                    regionStatistics.setHits(regionStatistics.getHits() + attribute(name, "CacheHits"));
+                    regionStatistics.setMisses(regionStatistics.getMisses() + attribute(name, "CacheMisses"));
+                    regionStatistics.setPuts(regionStatistics.getPuts() + attribute(name, "CachePuts"));
+                    regionStatistics.setEvictions(regionStatistics.getEvictions() + attribute(name, "CacheEvictions"));
+                }
+            } catch (JMException ex) {
+                throw new IllegalStateException("Cannot read statistics of cache region " + region, ex);
+            }
+            regionStatistics.setInvalidations(invalidations.get(region).get());
+            statistics.put(region, regionStatistics);
+        }
+        return statistics;
+    }
+
+    private long attribute(ObjectName name, String attribute) throws JMException {
+        return (Long) mBeanServer.getAttribute(name, attribute);
+    }
+}
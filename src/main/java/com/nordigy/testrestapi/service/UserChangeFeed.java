@@ -0,0 +1,345 @@
+package com.nordigy.testrestapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nordigy.testrestapi.config.ChangeFeedProperties;
+import com.nordigy.testrestapi.exception.ConcurrencyLimitExceededException;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.model.UserChange;
+import com.nordigy.testrestapi.model.UserChangeBatch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes the writes to users announced by Spring Data REST events (also published by the import) on
+ * {@code /api/users/changes}, as a stream of server-sent events or to long polls.
+ * <p>
+ * Recent changes are kept in a ring buffer, each rendered to its event once. Subscribers have no queue of their own,
+ * only the sequence of the last change they were sent: changes are collected for {@code flush-interval} and then
+ * written from the buffer to every subscriber in one write, by a small pool that has at most one write per subscriber
+ * in progress. A subscriber that falls behind by more than the buffer is disconnected rather than buffered for, and
+ * resuming from a sequence that is no longer buffered starts with a {@code reset} event.
+ * <p>
+ * Sequences start at the startup time in microseconds, so a sequence from before a restart is never taken for a
+ * buffered one. Writes that bypass the events, like those of another instance, are not published.
+ */
+@Component
+@RepositoryEventHandler
+@ConditionalOnProperty(name = "app.changes.enabled", havingValue = "true", matchIfMissing = true)
+public class UserChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(UserChangeFeed.class);
+
+    /**
+     * Content type of the rendered events as handed to the message converters; the response itself is
+     * {@code text/event-stream}.
+     */
+    private static final MediaType EVENT_TEXT = MediaType.TEXT_PLAIN;
+    private static final String HEARTBEAT = ":\n\n";
+
+    private final ObjectMapper objectMapper;
+    private final ChangeFeedProperties properties;
+    private final Entry[] buffer;
+    private final long start;
+    // sequence of the last change, guarded by this
+    private long head;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Poll> polls = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService senders;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final long heartbeatNanos;
+    private final Counter disconnected;
+
+    public UserChangeFeed(ObjectMapper objectMapper, ChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.buffer = new Entry[properties.getBufferSize()];
+        this.start = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.head = start;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("user-changes-"));
+        this.senders = Executors.newFixedThreadPool(properties.getSenderThreads(),
+                new CustomizableThreadFactory("user-changes-sender-"));
+        this.heartbeatNanos = properties.getHeartbeatInterval().toNanos();
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatNanos, heartbeatNanos, TimeUnit.NANOSECONDS);
+        this.disconnected = meterRegistry.counter("users.changes.disconnected");
+        Gauge.builder("users.changes.subscribers", this, feed -> feed.subscribers.size() + feed.polls.size())
+                .description("Open change streams and pending long polls")
+                .register(meterRegistry);
+    }
+
+    @HandleAfterCreate
+    public void created(User user) {
+        append(UserChange.Type.CREATED, user.getId(), user);
+    }
+
+    @HandleAfterSave
+    public void updated(User user) {
+        append(UserChange.Type.UPDATED, user.getId(), user);
+    }
+
+    @HandleAfterDelete
+    public void deleted(User user) {
+        append(UserChange.Type.DELETED, user.getId(), null);
+    }
+
+    /**
+     * A stream of the changes after {@code after}, or of the ones from now on if it is {@code null}.
+     */
+    public ResponseBodyEmitter subscribe(Long after) throws IOException {
+        checkCapacity();
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(properties.getStreamTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        // the first write commits the response, so the client sees the stream open before any change
+        if (after == null || since(after) == null) {
+            long current = head();
+            subscriber.cursor = current;
+            emitter.send(after == null ? HEARTBEAT : resetFrame(current), EVENT_TEXT);
+        } else {
+            subscriber.cursor = after;
+            emitter.send(HEARTBEAT, EVENT_TEXT);
+        }
+        emitter.onTimeout(emitter::complete);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        subscriber.dispatch(false);
+        return emitter;
+    }
+
+    /**
+     * The changes after {@code after}, or after the current one if it is {@code null}, as soon as there are any or
+     * once {@code long-poll-timeout} has passed.
+     */
+    public DeferredResult<UserChangeBatch> poll(Long after) {
+        long sequence = after != null ? after : head();
+        DeferredResult<UserChangeBatch> result = new DeferredResult<>(properties.getLongPollTimeout().toMillis(),
+                () -> batch(sequence));
+        UserChangeBatch batch = batch(sequence);
+        if (batch.isReset() || !batch.getChanges().isEmpty()) {
+            result.setResult(batch);
+            return result;
+        }
+        checkCapacity();
+        Poll poll = new Poll(sequence, result);
+        result.onCompletion(() -> polls.remove(poll));
+        polls.add(poll);
+        // a change appended since the first look, whose flush may have run before the poll was added
+        poll.complete();
+        return result;
+    }
+
+    private void checkCapacity() {
+        if (subscribers.size() + polls.size() >= properties.getMaxSubscribers()) {
+            throw new ConcurrencyLimitExceededException(properties.getMaxSubscribers());
+        }
+    }
+
+    private void append(UserChange.Type type, long id, User user) {
+        synchronized (this) {
+            UserChange change = new UserChange(head + 1, type, id, Instant.now(), user);
+            buffer[index(change.getSequence())] = new Entry(change, frame(change));
+            head = change.getSequence();
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, properties.getFlushInterval().toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private synchronized long head() {
+        return head;
+    }
+
+    /**
+     * The buffered changes after {@code sequence}, or {@code null} if some of them are no longer buffered.
+     */
+    private synchronized List<Entry> since(long sequence) {
+        if (sequence > head || sequence < Math.max(start, head - buffer.length)) {
+            return null;
+        }
+        List<Entry> entries = new ArrayList<>((int) (head - sequence));
+        for (long next = sequence + 1; next <= head; next++) {
+            entries.add(buffer[index(next)]);
+        }
+        return entries;
+    }
+
+    private UserChangeBatch batch(long after) {
+        List<Entry> entries = since(after);
+        if (entries == null) {
+            return new UserChangeBatch(head(), true, List.of());
+        }
+        return new UserChangeBatch(entries.isEmpty() ? after : entries.get(entries.size() - 1).sequence, false,
+                entries.stream().map(entry -> entry.change).collect(Collectors.toList()));
+    }
+
+    private void flush() {
+        // reset first, so that a change appended from here on schedules another flush
+        flushScheduled.set(false);
+        subscribers.forEach(subscriber -> subscriber.dispatch(false));
+        polls.forEach(Poll::complete);
+    }
+
+    private void heartbeat() {
+        long idleSince = System.nanoTime() - heartbeatNanos;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.lastWrite - idleSince <= 0) {
+                subscriber.dispatch(true);
+            }
+        }
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % buffer.length);
+    }
+
+    private String frame(UserChange change) {
+        try {
+            return "id: " + change.getSequence() + "\nevent: " + change.getType().name().toLowerCase(Locale.ROOT)
+                    + "\ndata: " + objectMapper.writeValueAsString(change) + "\n\n";
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not render the change of user " + change.getId(), ex);
+        }
+    }
+
+    private static String resetFrame(long sequence) {
+        return "id: " + sequence + "\nevent: reset\ndata: {\"sequence\":" + sequence + "}\n\n";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private static final class Entry {
+
+        private final long sequence;
+        private final UserChange change;
+        private final String frame;
+
+        Entry(UserChange change, String frame) {
+            this.sequence = change.getSequence();
+            this.change = change;
+            this.frame = frame;
+        }
+    }
+
+    private final class Subscriber {
+
+        private final ResponseBodyEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // sequence of the last change sent, only used by the thread that holds sending
+        private long cursor;
+        private volatile long lastWrite = System.nanoTime();
+
+        Subscriber(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Sends the changes since the last write, unless a write is still in progress: that one picks them up when
+         * it is done.
+         */
+        void dispatch(boolean heartbeat) {
+            if (!sending.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(() -> {
+                    try {
+                        send(heartbeat);
+                    } finally {
+                        sending.set(false);
+                    }
+                    if (subscribers.contains(this) && cursor < head()) {
+                        dispatch(false);
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                // shutting down
+                sending.set(false);
+            }
+        }
+
+        private void send(boolean heartbeat) {
+            List<Entry> entries = since(cursor);
+            if (entries == null) {
+                disconnected.increment();
+                log.debug("Disconnecting a change subscriber that fell behind by more than {} changes",
+                        buffer.length);
+                close();
+                return;
+            }
+            if (entries.isEmpty() && !heartbeat) {
+                return;
+            }
+            StringBuilder text = new StringBuilder(entries.isEmpty() ? HEARTBEAT : "");
+            entries.forEach(entry -> text.append(entry.frame));
+            try {
+                emitter.send(text.toString(), EVENT_TEXT);
+            } catch (IOException | IllegalStateException ex) {
+                // the client went away, or the stream has already been completed
+                close();
+                return;
+            }
+            if (!entries.isEmpty()) {
+                cursor = entries.get(entries.size() - 1).sequence;
+            }
+            lastWrite = System.nanoTime();
+        }
+
+        private void close() {
+            subscribers.remove(this);
+            emitter.complete();
+        }
+    }
+
+    private final class Poll {
+
+        private final long after;
+        private final DeferredResult<UserChangeBatch> result;
+
+        Poll(long after, DeferredResult<UserChangeBatch> result) {
+            this.after = after;
+            this.result = result;
+        }
+
+        void complete() {
+            UserChangeBatch batch = batch(after);
+            if (batch.isReset() || !batch.getChanges().isEmpty()) {
+                result.setResult(batch);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.nordigy.testrestapi.service;
+
+import com.nordigy.testrestapi.model.User;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A version of the users table that changes with every write announced by a Spring Data REST event (also published
+ * by the import and the reactive API) and every bulk update or delete, so the collection ETag costs no query.
+ * <p>
+ * Versions are only comparable within one run of the application: each run starts from the time it was started, so
+ * a tag handed out before a restart does not match afterwards. Writes that bypass the events are not seen.
+ */
+@Component
+@RepositoryEventHandler
+public class UserCollectionVersion {
+
+    private final String run = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong changes = new AtomicLong();
+
+    public String current() {
+        return run + '/' + changes.get();
+    }
+
+    /**
+     * Moves to a new version, for writes that are not announced by events.
+     */
+    public void bump() {
+        changes.incrementAndGet();
+    }
+
+    @HandleAfterCreate
+    public void created(User user) {
+        changes.incrementAndGet();
+    }
+
+    @HandleAfterSave
+    public void saved(User user) {
+        changes.incrementAndGet();
+    }
+
+    @HandleAfterDelete
+    public void deleted(User user) {
+        changes.incrementAndGet();
+    }
+}
@@ -0,0 +1,26 @@
+package com.nordigy.testrestapi.service;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+public enum UserExportFormat {
+
+    NDJSON(new MediaType("application", "x-ndjson", StandardCharsets.UTF_8)),
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8)),
+    // a sequence of root values, one per user
+    SMILE(new MediaType("application", "x-jackson-smile")),
+    CBOR(new MediaType("application", "cbor")),
+    // length-delimited User messages of proto/users.proto
+    PROTOBUF(new MediaType("application", "x-protobuf"));
+
+    private final MediaType mediaType;
+
+    UserExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,155 @@
+package com.nordigy.testrestapi.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedOutputStream;
+import com.nordigy.testrestapi.config.ExportProperties;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.UserRepository;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole users table to a stream row by row. Rows are read through a forward-only cursor and the
+ * persistence context is cleared every {@code app.export.fetch-size} rows, so heap usage does not depend on the
+ * table size.
+ */
+@Service
+public class UserExportService {
+
+    private static final String CSV_HEADER = "id,firstName,lastName,email,dayOfBirth\n";
+
+    private static final JsonFactory SMILE_FACTORY = new SmileFactory();
+    private static final JsonFactory CBOR_FACTORY = new CBORFactory();
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter userWriter;
+    private final ExportProperties properties;
+
+    public UserExportService(UserRepository userRepository, EntityManager entityManager,
+                             PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                             ExportProperties properties) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.userWriter = objectMapper.writerFor(User.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.properties = properties;
+    }
+
+    public void export(UserExportFormat format, OutputStream out) throws IOException {
+        switch (format) {
+            case NDJSON:
+                exportNdjson(out);
+                break;
+            case CSV:
+                exportCsv(out);
+                break;
+            case SMILE:
+                exportBinary(SMILE_FACTORY, out);
+                break;
+            case CBOR:
+                exportBinary(CBOR_FACTORY, out);
+                break;
+            case PROTOBUF:
+                exportProtobuf(out);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported export format " + format);
+        }
+    }
+
+    private void exportNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator generator = userWriter.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            forEachUser(user -> {
+                userWriter.writeValue(generator, user);
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    private void exportBinary(JsonFactory factory, OutputStream out) throws IOException {
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            forEachUser(user -> userWriter.writeValue(generator, user));
+        }
+    }
+
+    private void exportProtobuf(OutputStream out) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(out);
+        forEachUser(user -> UserProtobufEncoder.writeDelimitedUser(user, output));
+        output.flush();
+    }
+
+    private void exportCsv(OutputStream out) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            writer.write(CSV_HEADER);
+            forEachUser(user -> {
+                writer.write(String.valueOf(user.getId()));
+                writer.write(',');
+                writer.write(csv(user.getFirstName()));
+                writer.write(',');
+                writer.write(csv(user.getLastName()));
+                writer.write(',');
+                writer.write(csv(user.getEmail()));
+                writer.write(',');
+                writer.write(String.valueOf(user.getDayOfBirth()));
+                writer.write('\n');
+            });
+        }
+    }
+
+    private void forEachUser(UserConsumer consumer) throws IOException {
+        int fetchSize = properties.getFetchSize();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<User> users = userRepository.streamAll(fetchSize)) {
+                    Iterator<User> iterator = users.iterator();
+                    int count = 0;
+                    while (iterator.hasNext()) {
+                        consumer.accept(iterator.next());
+                        if (++count % fetchSize == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static String csv(String value) {
+        if (!StringUtils.containsAny(value, ',', '"', '\n', '\r')) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface UserConsumer {
+        void accept(User user) throws IOException;
+    }
+}
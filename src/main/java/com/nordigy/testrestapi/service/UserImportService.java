@@ -0,0 +1,150 @@
+package com.nordigy.testrestapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.nordigy.testrestapi.config.ImportProperties;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.model.UserImportResult;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.rest.core.event.AfterCreateEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Imports users from a JSON array or a newline delimited JSON stream.
+ * <p>
+ * Items are validated against the {@link User} constraints one by one and valid ones are persisted in chunks of
+ * {@code app.import.batch-size}, each chunk in its own transaction, so the whole payload never has to fit in memory.
+ * Every persisted user is announced with an {@link AfterCreateEvent}, the same way Spring Data REST does for a POST.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectReader userReader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImportProperties properties;
+
+    public UserImportService(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                             Validator validator, ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher, ImportProperties properties) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.userReader = objectMapper.readerFor(User.class);
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+    }
+
+    public UserImportResult importUsers(InputStream body) throws IOException {
+        UserImportResult result = new UserImportResult();
+        List<User> chunk = new ArrayList<>(properties.getBatchSize());
+        List<Integer> indexes = new ArrayList<>(properties.getBatchSize());
+        int index = 0;
+        try (MappingIterator<User> users = userReader.readValues(body)) {
+            while (users.hasNextValue()) {
+                User user;
+                try {
+                    user = users.nextValue();
+                } catch (JsonMappingException ex) {
+                    reject(result, index++, ex);
+                    continue;
+                }
+                Set<ConstraintViolation<User>> violations = validator.validate(user);
+                if (!violations.isEmpty()) {
+                    result.reject(index++, violations);
+                    continue;
+                }
+                chunk.add(user);
+                indexes.add(index++);
+                if (chunk.size() == properties.getBatchSize()) {
+                    write(chunk, indexes, result);
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            result.reject(index, null, null, "Malformed JSON: " + ex.getOriginalMessage());
+        }
+        write(chunk, indexes, result);
+        log.info("Imported {} users, rejected {}", result.getImported(), result.getRejected());
+        return result;
+    }
+
+    private void write(List<User> chunk, List<Integer> indexes, UserImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            persist(chunk);
+            result.imported(chunk.size());
+            chunk.forEach(this::publishCreated);
+        } catch (RuntimeException ex) {
+            if (!isConstraintViolation(ex)) {
+                throw ex;
+            }
+            // One conflicting row rolls back the whole batch, so find it by retrying the chunk row by row.
+            for (int i = 0; i < chunk.size(); i++) {
+                User user = chunk.get(i);
+                user.setId(null);
+                user.setVersion(null);
+                try {
+                    persist(List.of(user));
+                    result.imported(1);
+                    publishCreated(user);
+                } catch (RuntimeException rowEx) {
+                    if (!isConstraintViolation(rowEx)) {
+                        throw rowEx;
+                    }
+                    result.reject(indexes.get(i), "email", user.getEmail(), "Database error");
+                }
+            }
+        }
+        chunk.clear();
+        indexes.clear();
+    }
+
+    private void persist(List<User> users) {
+        transactionTemplate.executeWithoutResult(status -> {
+            users.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private void publishCreated(User user) {
+        eventPublisher.publishEvent(new AfterCreateEvent(user));
+    }
+
+    private static void reject(UserImportResult result, int index, JsonMappingException ex) {
+        String field = ex.getPath().isEmpty() ? null : ex.getPath().get(ex.getPath().size() - 1).getFieldName();
+        Object rejectedValue = ex instanceof InvalidFormatException ? ((InvalidFormatException) ex).getValue() : null;
+        result.reject(index, field, rejectedValue, ex.getOriginalMessage());
+    }
+
+    private static boolean isConstraintViolation(RuntimeException ex) {
+        return ex instanceof DataIntegrityViolationException
+                || ex instanceof PersistenceException && ex.getCause() instanceof ConstraintViolationException;
+    }
+}
@@ -0,0 +1,184 @@
+package com.nordigy.testrestapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.nordigy.testrestapi.exception.InvalidParameterException;
+import com.nordigy.testrestapi.model.QUser;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.UserRepository;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.ComparableExpression;
+import com.querydsl.core.types.dsl.PathBuilder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset (seek) pagination over users.
+ * <p>
+ * Instead of skipping {@code page * size} rows, every page continues from the sort key of the last row of the
+ * previous one, so the cost of a page does not depend on how deep it is. The sort is always made unique by appending
+ * {@code id}. Cursors are opaque base64url tokens carrying the sort they were issued for and the key of the boundary
+ * row; a cursor presented with a different sort is rejected.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserKeysetService {
+
+    private static final Map<String, Class<?>> SORTABLE = Map.of(
+            "id", Long.class,
+            "firstName", String.class,
+            "lastName", String.class,
+            "email", String.class,
+            "dayOfBirth", LocalDate.class);
+
+    private static final PathBuilder<User> user = new PathBuilder<>(User.class, QUser.user.getMetadata());
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    public KeysetSlice findAfter(Predicate filter, Sort sort, String after, int size) {
+        Sort keysetSort = keysetSort(sort);
+        Predicate where = filter;
+        if (StringUtils.hasText(after)) {
+            where = ExpressionUtils.allOf(filter, seek(keysetSort, decode("after", after, keysetSort), true));
+        }
+        List<User> users = userRepository.findAll(where, keysetSort, size + 1);
+        boolean hasNext = users.size() > size;
+        if (hasNext) {
+            users = users.subList(0, size);
+        }
+        boolean hasPrevious = StringUtils.hasText(after) && !users.isEmpty();
+        return new KeysetSlice(users,
+                hasNext ? encode(users.get(users.size() - 1), keysetSort) : null,
+                hasPrevious ? encode(users.get(0), keysetSort) : null);
+    }
+
+    /**
+     * Fetches the page preceding the given cursor. An empty cursor addresses the last page.
+     */
+    public KeysetSlice findBefore(Predicate filter, Sort sort, String before, int size) {
+        Sort keysetSort = keysetSort(sort);
+        Predicate where = filter;
+        if (StringUtils.hasText(before)) {
+            where = ExpressionUtils.allOf(filter, seek(keysetSort, decode("before", before, keysetSort), false));
+        }
+        List<User> users = new ArrayList<>(userRepository.findAll(where, reverse(keysetSort), size + 1));
+        boolean hasPrevious = users.size() > size;
+        if (hasPrevious) {
+            users.remove(size);
+        }
+        Collections.reverse(users);
+        boolean hasNext = StringUtils.hasText(before) && !users.isEmpty();
+        return new KeysetSlice(users,
+                hasNext ? encode(users.get(users.size() - 1), keysetSort) : null,
+                hasPrevious ? encode(users.get(0), keysetSort) : null);
+    }
+
+    private static Sort keysetSort(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (!SORTABLE.containsKey(order.getProperty())) {
+                throw new InvalidParameterException("sort",
+                        "Keyset pagination cannot sort by '" + order.getProperty() + "'. Sortable properties: "
+                                + SORTABLE.keySet());
+            }
+            orders.add(Sort.Order.by(order.getProperty()).with(order.getDirection()));
+            if ("id".equals(order.getProperty())) {
+                // id is unique, anything after it would never be compared
+                return Sort.by(orders);
+            }
+        }
+        orders.add(Sort.Order.asc("id"));
+        return Sort.by(orders);
+    }
+
+    private static Sort reverse(Sort sort) {
+        return Sort.by(sort.stream()
+                .map(order -> order.with(order.isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Builds {@code (k1 > v1) or (k1 = v1 and k2 > v2) or ...}, with the comparison flipped for descending
+     * properties and for backward seeks.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static Predicate seek(Sort sort, List<Object> key, boolean forward) {
+        Predicate seek = null;
+        Predicate equalSoFar = null;
+        int i = 0;
+        for (Sort.Order order : sort) {
+            ComparableExpression<Comparable> property = user.getComparable(order.getProperty(), Comparable.class);
+            Comparable value = (Comparable) key.get(i++);
+            Predicate beyond = order.isAscending() == forward ? property.gt(value) : property.lt(value);
+            seek = ExpressionUtils.anyOf(seek, ExpressionUtils.allOf(equalSoFar, beyond));
+            equalSoFar = ExpressionUtils.allOf(equalSoFar, property.eq(value));
+        }
+        return seek;
+    }
+
+    private String encode(User row, Sort sort) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        ObjectNode cursor = objectMapper.createObjectNode();
+        cursor.put("s", signature(sort));
+        ArrayNode key = cursor.putArray("k");
+        sort.forEach(order -> key.add(objectMapper.valueToTree(wrapper.getPropertyValue(order.getProperty()))));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot encode cursor", ex);
+        }
+    }
+
+    private List<Object> decode(String parameterName, String token, Sort sort) {
+        JsonNode cursor;
+        try {
+            cursor = objectMapper.readTree(Base64.getUrlDecoder().decode(token));
+        } catch (IllegalArgumentException | IOException ex) {
+            throw new InvalidParameterException(parameterName, "Malformed cursor", ex);
+        }
+        if (!cursor.path("s").asText().equals(signature(sort))) {
+            throw new InvalidParameterException(parameterName, "Cursor was issued for a different sort");
+        }
+        JsonNode key = cursor.path("k");
+        if (!key.isArray() || key.size() != sort.stream().count()) {
+            throw new InvalidParameterException(parameterName, "Malformed cursor");
+        }
+        List<Object> values = new ArrayList<>(key.size());
+        int i = 0;
+        for (Sort.Order order : sort) {
+            JsonNode value = key.get(i++);
+            if (value.isNull()) {
+                throw new InvalidParameterException(parameterName, "Malformed cursor");
+            }
+            try {
+                values.add(objectMapper.treeToValue(value, SORTABLE.get(order.getProperty())));
+            } catch (IOException ex) {
+                throw new InvalidParameterException(parameterName, "Malformed cursor", ex);
+            }
+        }
+        return values;
+    }
+
+    private static String signature(Sort sort) {
+        return sort.stream()
+                .map(order -> order.isAscending() ? order.getProperty() : "-" + order.getProperty())
+                .collect(Collectors.joining(","));
+    }
+}
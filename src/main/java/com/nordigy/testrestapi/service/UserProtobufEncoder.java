@@ -0,0 +1,111 @@
+package com.nordigy.testrestapi.service;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.nordigy.testrestapi.model.User;
+import org.springframework.hateoas.PagedModel;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes users as the protobuf messages of {@code proto/users.proto}. The schema is small enough to encode by hand,
+ * so the build does not need the protobuf compiler and no message objects are created on the way.
+ */
+public final class UserProtobufEncoder {
+
+    private static final int USER_ID = 1;
+    private static final int USER_FIRST_NAME = 2;
+    private static final int USER_LAST_NAME = 3;
+    private static final int USER_EMAIL = 4;
+    private static final int USER_DAY_OF_BIRTH = 5;
+    private static final int USER_LAST_MODIFIED_DATE = 6;
+
+    private static final int PAGE_USERS = 1;
+    private static final int PAGE_METADATA = 2;
+
+    private static final int METADATA_SIZE = 1;
+    private static final int METADATA_TOTAL_ELEMENTS = 2;
+    private static final int METADATA_TOTAL_PAGES = 3;
+    private static final int METADATA_NUMBER = 4;
+
+    private UserProtobufEncoder() {
+    }
+
+    /**
+     * Writes a {@code User} message.
+     */
+    public static void writeUser(User user, CodedOutputStream out) throws IOException {
+        long id = user.getId() == null ? 0 : user.getId();
+        if (id != 0) {
+            out.writeInt64(USER_ID, id);
+        }
+        writeString(out, USER_FIRST_NAME, user.getFirstName());
+        writeString(out, USER_LAST_NAME, user.getLastName());
+        writeString(out, USER_EMAIL, user.getEmail());
+        if (user.getDayOfBirth() != null) {
+            out.writeString(USER_DAY_OF_BIRTH, user.getDayOfBirth().toString());
+        }
+        if (user.getLastModifiedDate() != null) {
+            out.writeInt64(USER_LAST_MODIFIED_DATE, user.getLastModifiedDate().toEpochMilli());
+        }
+    }
+
+    /**
+     * Writes a {@code User} message prefixed with its length, one element of a stream of users.
+     */
+    public static void writeDelimitedUser(User user, CodedOutputStream out) throws IOException {
+        out.writeUInt32NoTag(userSize(user));
+        writeUser(user, out);
+    }
+
+    /**
+     * Writes a {@code UserPage} message, {@code page} may be {@code null}.
+     */
+    public static void writePage(List<User> users, PagedModel.PageMetadata page, CodedOutputStream out)
+            throws IOException {
+        for (User user : users) {
+            out.writeTag(PAGE_USERS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            writeDelimitedUser(user, out);
+        }
+        if (page != null) {
+            out.writeTag(PAGE_METADATA, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(CodedOutputStream.computeInt64Size(METADATA_SIZE, page.getSize())
+                    + CodedOutputStream.computeInt64Size(METADATA_TOTAL_ELEMENTS, page.getTotalElements())
+                    + CodedOutputStream.computeInt64Size(METADATA_TOTAL_PAGES, page.getTotalPages())
+                    + CodedOutputStream.computeInt64Size(METADATA_NUMBER, page.getNumber()));
+            out.writeInt64(METADATA_SIZE, page.getSize());
+            out.writeInt64(METADATA_TOTAL_ELEMENTS, page.getTotalElements());
+            out.writeInt64(METADATA_TOTAL_PAGES, page.getTotalPages());
+            out.writeInt64(METADATA_NUMBER, page.getNumber());
+        }
+    }
+
+    private static int userSize(User user) {
+        long id = user.getId() == null ? 0 : user.getId();
+        int size = id != 0 ? CodedOutputStream.computeInt64Size(USER_ID, id) : 0;
+        size += stringSize(USER_FIRST_NAME, user.getFirstName());
+        size += stringSize(USER_LAST_NAME, user.getLastName());
+        size += stringSize(USER_EMAIL, user.getEmail());
+        if (user.getDayOfBirth() != null) {
+            size += CodedOutputStream.computeStringSize(USER_DAY_OF_BIRTH, user.getDayOfBirth().toString());
+        }
+        if (user.getLastModifiedDate() != null) {
+            size += CodedOutputStream.computeInt64Size(USER_LAST_MODIFIED_DATE,
+                    user.getLastModifiedDate().toEpochMilli());
+        }
+        return size;
+    }
+
+    // proto3 leaves out empty strings, they read back as the default
+
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            out.writeString(field, value);
+        }
+    }
+
+    private static int stringSize(int field, String value) {
+        return value != null && !value.isEmpty() ? CodedOutputStream.computeStringSize(field, value) : 0;
+    }
+}
@@ -0,0 +1,296 @@
+package com.nordigy.testrestapi.service;
+
+import com.nordigy.testrestapi.exception.SearchIndexNotReadyException;
+import com.nordigy.testrestapi.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * In-memory prefix index over the first name, last name and email of every user, for type-ahead search.
+ * <p>
+ * Every field has a skip list of entries ordered by the lower-cased value and the id, so the users whose field starts
+ * with a term form one range that is read only as far as the requested number of results. Results are ranked: names
+ * before emails, within them an exact match before longer completions, then alphabetically and by id.
+ * <p>
+ * The index is loaded from the table in the background once the application is ready, and afterwards follows the
+ * Spring Data REST write events (also published by the import and the reactive API). The bulk endpoints
+ * {@link #reload()} it instead; other writes that bypass the events show up after the next start.
+ */
+@Component
+@RepositoryEventHandler
+@ConditionalOnProperty(name = "app.search.enabled", havingValue = "true", matchIfMissing = true)
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry> byFirstName = new ConcurrentSkipListSet<>(order(Entry::getFirstName));
+    private final NavigableSet<Entry> byLastName = new ConcurrentSkipListSet<>(order(Entry::getLastName));
+    private final NavigableSet<Entry> byEmail = new ConcurrentSkipListSet<>(order(Entry::getEmail));
+    // users deleted while the table is being loaded, so that a row read before the delete is not added afterwards
+    private final Set<Long> deletedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading = true;
+
+    public UserSearchIndex(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(LOAD_FETCH_SIZE);
+    }
+
+    /**
+     * Loads the users in a background thread, so the startup time does not depend on the size of the table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        Thread loader = new Thread(this::load, "user-search-index");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Reads all users of the table, called once on a fresh index.
+     */
+    public void load() {
+        long started = System.nanoTime();
+        try {
+            jdbcTemplate.query("SELECT id, first_name, last_name, email FROM user", resultSet -> {
+                Entry entry = new Entry(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3),
+                        resultSet.getString(4));
+                // an entry that is already there came from a write event and is newer than the row
+                entries.computeIfAbsent(entry.id, id -> deletedWhileLoading.contains(id) ? null : link(entry));
+            });
+        } finally {
+            loading = false;
+            deletedWhileLoading.clear();
+        }
+        log.info("Indexed {} users for search in {} ms", entries.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Drops the index and reads the table again, for writes that are not announced by events.
+     */
+    public synchronized void reload() {
+        loading = true;
+        entries.clear();
+        byFirstName.clear();
+        byLastName.clear();
+        byEmail.clear();
+        load();
+    }
+
+    public boolean isReady() {
+        return !loading;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @HandleAfterCreate
+    @HandleAfterSave
+    public void put(User user) {
+        Entry entry = new Entry(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail());
+        entries.compute(entry.id, (id, previous) -> {
+            if (previous != null) {
+                unlink(previous);
+            }
+            return link(entry);
+        });
+    }
+
+    @HandleAfterDelete
+    public void remove(User user) {
+        entries.compute(user.getId(), (id, previous) -> {
+            if (loading) {
+                deletedWhileLoading.add(id);
+            }
+            if (previous != null) {
+                unlink(previous);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Ids of at most {@code limit} users matching every whitespace separated term of the query, best first. A user
+     * matches a term when the first name, last name or email starts with it, ignoring case.
+     */
+    public List<Long> search(String query, int limit) {
+        if (loading) {
+            throw new SearchIndexNotReadyException();
+        }
+        String[] terms = Arrays.stream(query.toLowerCase(Locale.ROOT).split("\\s+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+        if (terms.length == 0 || limit < 1) {
+            return List.of();
+        }
+        // the longest term usually has the fewest matches, the others only filter them
+        String driver = Arrays.stream(terms).max(Comparator.comparingInt(String::length)).get();
+        Predicate<Entry> filter = entry -> Arrays.stream(terms).allMatch(entry::matches);
+
+        Set<Long> ids = new LinkedHashSet<>();
+        collect(new Range(byFirstName, Entry::getFirstName, driver), new Range(byLastName, Entry::getLastName, driver),
+                filter, limit, ids);
+        collect(new Range(byEmail, Entry::getEmail, driver), null, filter, limit, ids);
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * Merges two ranges in (value, id) order, so that an exact match comes before the completions of either field.
+     */
+    private static void collect(Range first, Range second, Predicate<Entry> filter, int limit, Set<Long> ids) {
+        while (ids.size() < limit) {
+            Range next = first;
+            if (second != null && (first.peek() == null
+                    || second.peek() != null && second.compareTo(first) < 0)) {
+                next = second;
+            }
+            Entry entry = next.poll();
+            if (entry == null) {
+                return;
+            }
+            if (filter.test(entry)) {
+                ids.add(entry.id);
+            }
+        }
+    }
+
+    private Entry link(Entry entry) {
+        byFirstName.add(entry);
+        byLastName.add(entry);
+        byEmail.add(entry);
+        return entry;
+    }
+
+    private void unlink(Entry entry) {
+        byFirstName.remove(entry);
+        byLastName.remove(entry);
+        byEmail.remove(entry);
+    }
+
+    private static Comparator<Entry> order(Function<Entry, String> field) {
+        return Comparator.comparing(field).thenComparingLong(Entry::getId);
+    }
+
+    private static final class Entry {
+
+        private final long id;
+        private final String firstName;
+        private final String lastName;
+        private final String email;
+
+        Entry(long id, String firstName, String lastName, String email) {
+            this.id = id;
+            this.firstName = normalize(firstName);
+            this.lastName = normalize(lastName);
+            this.email = normalize(email);
+        }
+
+        /**
+         * Sorts before every entry whose value starts with the term, in any of the field orders.
+         */
+        static Entry probe(String term) {
+            return new Entry(Long.MIN_VALUE, term, term, term);
+        }
+
+        boolean matches(String term) {
+            return firstName.startsWith(term) || lastName.startsWith(term) || email.startsWith(term);
+        }
+
+        long getId() {
+            return id;
+        }
+
+        String getFirstName() {
+            return firstName;
+        }
+
+        String getLastName() {
+            return lastName;
+        }
+
+        String getEmail() {
+            return email;
+        }
+
+        private static String normalize(String value) {
+            return value == null ? "" : value.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * The entries of one field that start with a term, read on demand.
+     */
+    private static final class Range {
+
+        private final Iterator<Entry> iterator;
+        private final Function<Entry, String> field;
+        private final String term;
+        private Entry next;
+
+        Range(NavigableSet<Entry> set, Function<Entry, String> field, String term) {
+            this.iterator = set.tailSet(Entry.probe(term)).iterator();
+            this.field = field;
+            this.term = term;
+            advance();
+        }
+
+        Entry peek() {
+            return next;
+        }
+
+        Entry poll() {
+            Entry current = next;
+            if (current != null) {
+                advance();
+            }
+            return current;
+        }
+
+        int compareTo(Range other) {
+            int byValue = field.apply(next).compareTo(other.field.apply(other.next));
+            return byValue != 0 ? byValue : Long.compare(next.id, other.next.id);
+        }
+
+        private void advance() {
+            next = null;
+            if (iterator.hasNext()) {
+                Entry candidate = iterator.next();
+                if (field.apply(candidate).startsWith(term)) {
+                    next = candidate;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- Indexes declared on the User entity, for databases created before they were added.
+-- Safe to run repeatedly; works on H2 and SQLite. Hibernate creates the same indexes by itself
+-- when spring.jpa.hibernate.ddl-auto is create or update.
+CREATE INDEX IF NOT EXISTS idx_user_last_name_first_name ON user (last_name, first_name);
+CREATE INDEX IF NOT EXISTS idx_user_first_name ON user (first_name);
+CREATE INDEX IF NOT EXISTS idx_user_day_of_birth ON user (day_of_birth);
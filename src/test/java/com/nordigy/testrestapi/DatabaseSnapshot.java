@@ -0,0 +1,53 @@
+package com.nordigy.testrestapi;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copy of the rows of a table, kept in memory and written back by deleting the table and inserting the copy in one
+ * batch, which takes milliseconds where a new application context takes seconds. Ids are written back as they were;
+ * Hibernate keeps handing out ids from its sequence, so new rows never collide with restored ones.
+ */
+final class DatabaseSnapshot {
+
+    private final String table;
+    private final List<String> columns;
+    private final List<Object[]> rows;
+
+    private DatabaseSnapshot(String table, List<String> columns, List<Object[]> rows) {
+        this.table = table;
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    static DatabaseSnapshot take(JdbcTemplate jdbcTemplate, String table) {
+        List<String> columns = new ArrayList<>();
+        List<Object[]> rows = jdbcTemplate.query("SELECT * FROM " + table, (resultSet, rowNum) -> {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            Object[] row = new Object[metaData.getColumnCount()];
+            for (int i = 0; i < row.length; i++) {
+                if (rowNum == 0) {
+                    columns.add(metaData.getColumnName(i + 1));
+                }
+                row[i] = resultSet.getObject(i + 1);
+            }
+            return row;
+        });
+        return new DatabaseSnapshot(table, columns, rows);
+    }
+
+    /**
+     * Writes the rows back, to be called in a transaction.
+     */
+    void restore(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM " + table);
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")", rows);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.nordigy.testrestapi;
+
+import com.nordigy.testrestapi.api.ExceptionHandlerController;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import javax.annotation.PostConstruct;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.startsWith;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ResourceLock(SharedContexts.DEFAULT)
+class ErrorResponseTests {
+
+    private static final String TIMESTAMP = "\\d{2}-\\d{2}-\\d{4} \\d{2}:\\d{2}:\\d{2}";
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldAnswerEveryInvalidUserInFull() {
+        double before = errors("RepositoryConstraintViolationException");
+        for (int i = 0; i < 3; i++) {
+            given(spec).log().all()
+                    .contentType(ContentType.JSON)
+                    .body("{\"firstName\":\"A\",\"lastName\":\"B\",\"email\":\"mail\",\"dayOfBirth\":\"2100-01-01\"}")
+                    .when().post("/api/users")
+                    .then().log().ifValidationFails()
+                    .statusCode(400)
+                    .body("status", is("BAD_REQUEST"))
+                    .body("timestamp", matchesPattern(TIMESTAMP))
+                    .body("subErrors.field", containsInAnyOrder("firstName", "lastName", "email", "dayOfBirth"));
+        }
+        assertThat(errors("RepositoryConstraintViolationException")).isEqualTo(before + 3);
+    }
+
+    @Test
+    public void shouldAnswerInvalidParameter() {
+        double before = errors("InvalidParameterException");
+        for (int i = 0; i < 2; i++) {
+            given(spec).log().all()
+                    .when().get("/api/users?fields=id,password")
+                    .then().log().ifValidationFails()
+                    .statusCode(400)
+                    .body("message", is("Invalid value of parameter 'fields'"))
+                    .body("debugMessage", startsWith("Unknown property 'password'. Available properties: ["))
+                    .body("timestamp", matchesPattern(TIMESTAMP));
+        }
+        assertThat(errors("InvalidParameterException")).isEqualTo(before + 2);
+    }
+
+    private double errors(String exception) {
+        return meterRegistry.counter(ExceptionHandlerController.ERRORS_METRIC,
+                "exception", exception, "status", "400").count();
+    }
+}
@@ -0,0 +1,57 @@
+package com.nordigy.testrestapi;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import javax.annotation.PostConstruct;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.generate-unique-name=true")
+@ResourceLock(SharedContexts.UNIQUE_DATABASE)
+class MetricsTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldExposeMetricsInPrometheusFormat() {
+        given(spec).when().get("/api/users/1").then().statusCode(200);
+        given(spec).contentType(ContentType.JSON)
+                .body("{\"firstName\": \"\"}")
+                .when().post("/api/users")
+                .then().statusCode(400);
+
+        String metrics = given(spec).log().all()
+                .when().get("/actuator/prometheus")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .contentType(ContentType.TEXT)
+                .extract().asString();
+
+        assertThat(metrics)
+                .containsPattern("spring_data_repository_invocations_seconds_count\\{.*method=\"findById\""
+                        + ".*repository=\"UserRepository\"")
+                .containsPattern("http_server_requests_seconds\\{.*uri=\"/api/.*quantile=\"0.95\"")
+                .containsPattern("http_server_requests_seconds_bucket\\{.*uri=\"/api/")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_statements_total")
+                .containsPattern("api_errors_total\\{exception=\"RepositoryConstraintViolationException\","
+                        + "status=\"400\",\\} 1.0");
+    }
+}
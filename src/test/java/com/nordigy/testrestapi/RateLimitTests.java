@@ -0,0 +1,90 @@
+package com.nordigy.testrestapi;
+
+import com.nordigy.testrestapi.api.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.annotation.PostConstruct;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "spring.datasource.generate-unique-name=true", "app.rate-limit.enabled=true",
+                "app.rate-limit.client-header=X-Client-Id", "app.rate-limit.requests-per-second=0.1",
+                "app.rate-limit.burst=3", "app.rate-limit.max-concurrent-requests=1" })
+class RateLimitTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @Autowired
+    private FilterRegistrationBean<RateLimitFilter> rateLimitFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldLimitEachClientSeparately() {
+        for (int i = 0; i < 3; i++) {
+            given(spec).header("X-Client-Id", "noisy").when().get("/api/users").then().statusCode(200);
+        }
+        given(spec).log().all()
+                .header("X-Client-Id", "noisy")
+                .when().get("/api/users?sort=email")
+                .then().log().ifValidationFails()
+                .statusCode(429)
+                .header("Retry-After", matchesPattern("10|[1-9]"))
+                .body("status", is("TOO_MANY_REQUESTS"))
+                .body("message", is("Too many requests, try again later"));
+
+        given(spec).log().all()
+                .header("X-Client-Id", "quiet")
+                .when().get("/api/users")
+                .then().log().ifValidationFails()
+                .statusCode(200);
+        // only the users API is limited
+        given(spec).header("X-Client-Id", "noisy").when().get("/actuator/health").then().statusCode(200);
+
+        assertThat(meterRegistry.counter(RateLimitFilter.REJECTED_METRIC, "reason", "rate-limit").count())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void shouldShedRequestsBeyondConcurrencyLimit() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.addHeader("X-Client-Id", "holder");
+        // the request in the chain holds the only slot while another one arrives over HTTP
+        rateLimitFilter.getFilter().doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                given(spec).log().all()
+                        .header("X-Client-Id", "shed")
+                        .when().get("/api/users")
+                        .then().log().ifValidationFails()
+                        .statusCode(503)
+                        .body("status", is("SERVICE_UNAVAILABLE"))
+                        .body("message", is("Server is busy, try again later")));
+
+        given(spec).header("X-Client-Id", "shed").when().get("/api/users").then().statusCode(200);
+        assertThat(meterRegistry.counter(RateLimitFilter.REJECTED_METRIC, "reason", "concurrency").count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("users.api.in-flight").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,65 @@
+package com.nordigy.testrestapi;
+
+import com.nordigy.testrestapi.repository.UserCounter;
+import com.nordigy.testrestapi.service.UserCache;
+import com.nordigy.testrestapi.service.UserCollectionVersion;
+import com.nordigy.testrestapi.service.UserSearchIndex;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Puts the users table back after every test to the state it had before the first test of the application context,
+ * so that tests can share one context (and with it Tomcat, Hibernate and the seeded users) and still not see each
+ * other's writes. The in-memory views of the table are then brought in line through their own APIs: the search index
+ * is read again, the second-level cache is evicted, the counter counts again and the collection version moves on.
+ * <p>
+ * Every test class that writes to a shared context has to register it, otherwise the snapshot of that context may
+ * already contain its writes.
+ */
+class ResetDatabaseExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(ResetDatabaseExtension.class);
+
+    private static final String TABLE = "user";
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        ApplicationContext applicationContext = applicationContext(context);
+        // the store of the root context lives as long as the test run, as do the cached application contexts
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(applicationContext,
+                key -> DatabaseSnapshot.take(applicationContext.getBean(JdbcTemplate.class), TABLE),
+                DatabaseSnapshot.class);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        ApplicationContext applicationContext = applicationContext(context);
+        DatabaseSnapshot snapshot = context.getRoot().getStore(NAMESPACE)
+                .get(applicationContext, DatabaseSnapshot.class);
+        JdbcTemplate jdbcTemplate = applicationContext.getBean(JdbcTemplate.class);
+        new TransactionTemplate(applicationContext.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> snapshot.restore(jdbcTemplate));
+
+        applicationContext.getBeanProvider(UserSearchIndex.class).ifAvailable(UserSearchIndex::reload);
+        applicationContext.getBeanProvider(UserCache.class).ifAvailable(UserCache::evictAll);
+        applicationContext.getBean(UserCounter.class).resync();
+        applicationContext.getBean(UserCollectionVersion.class).bump();
+    }
+
+    private static ApplicationContext applicationContext(ExtensionContext context) {
+        // Spring 5.2 does not pass the configuration of a test class on to its @Nested classes, their tests run in
+        // the context of the outermost class
+        ExtensionContext outermost = context;
+        while (outermost.getParent().flatMap(ExtensionContext::getTestClass).isPresent()) {
+            outermost = outermost.getParent().get();
+        }
+        return SpringExtension.getApplicationContext(outermost);
+    }
+}
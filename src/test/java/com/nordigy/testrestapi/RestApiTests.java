@@ -3,13 +3,16 @@ package com.nordigy.testrestapi;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.junit.runner.RunWith;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.web.server.LocalServerPort;
-import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import javax.annotation.PostConstruct;
@@ -18,57 +21,57 @@ import static io.restassured.RestAssured.given;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.hibernate.criterion.Restrictions.or;
-import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD;
-import static org.springframework.test.annotation.DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
-// It allows to refresh context(Database) before an each method. So your tests always will be executed on the same snapshot of DB.
-@DirtiesContext(classMode = BEFORE_EACH_TEST_METHOD)
+// It restores the database after an each method. So your tests always will be executed on the same snapshot of DB.
+@ExtendWith(ResetDatabaseExtension.class)
+@ResourceLock(SharedContexts.DEFAULT)
 class RestApiTests {
 
     @LocalServerPort
     private int port;
 
+    private RequestSpecification spec;
+
     @PostConstruct
     public void init() {
-        RestAssured.port = port;
+        spec = new RequestSpecBuilder().setPort(port).build();
     }
 
     @Nested
-    @DirtiesContext(classMode = AFTER_EACH_TEST_METHOD)
     public class GetMethodTests {
 
-//        @Test
-//        public void shouldReturnCorrectUsersListSize() {
-//            given().log().all()
-//                    .when().get("/api/users")
-//                    .then().log().ifValidationFails()
-//                    .statusCode(200)
-//                    .body("page.totalElements", is(20));
-//        }
-//
-//        @Test
-//        public void shouldReturnCorrectPageSize() {
-//            given().log().all()
-//                    .when().get("/api/users")
-//                    .then().log().ifValidationFails()
-//                    .statusCode(200)
-//                    .body("page.size", is(20));
-//        }
-//
-//        @Test
-//        public void shouldReturnCorrectNumberOfPages() {
-//            given().log().all()
-//                    .when().get("/api/users")
-//                    .then().log().ifValidationFails()
-//                    .statusCode(200)
-//                    .body("page.totalPages", is(1));
-//        }
+        @Test
+        public void shouldReturnCorrectUsersListSize() {
+            given(spec).log().all()
+                    .when().get("/api/users")
+                    .then().log().ifValidationFails()
+                    .statusCode(200)
+                    .body("page.totalElements", is(20));
+        }
+
+        @Test
+        public void shouldReturnCorrectPageSize() {
+            given(spec).log().all()
+                    .when().get("/api/users")
+                    .then().log().ifValidationFails()
+                    .statusCode(200)
+                    .body("page.size", is(20));
+        }
+
+        @Test
+        public void shouldReturnCorrectNumberOfPages() {
+            given(spec).log().all()
+                    .when().get("/api/users")
+                    .then().log().ifValidationFails()
+                    .statusCode(200)
+                    .body("page.totalPages", is(1));
+        }
 
         @Test
         public void shouldReturnUserIfExists() {
-            ObjectNode user = given().log().all()
+            ObjectNode user = given(spec).log().all()
                     .when().get("/api/users/10")
                     .then().log().ifValidationFails()
                     .statusCode(200)
@@ -78,7 +81,7 @@ class RestApiTests {
 
         @Test
         public void shouldNotReturnUserIfNotExists() {
-            given().log().all()
+            given(spec).log().all()
                     .when().get("/api/users/30")
                     .then().log().ifValidationFails()
                     .statusCode(404);
@@ -93,14 +96,14 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "2000-01-01");
             objectNode.put("email", "asdas@asdas.tr");
 
-            given().log().all()
+            given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().post("/api/users")
                     .then().log().ifValidationFails()
                     .statusCode(201);
 
-            given().log().all()
+            given(spec).log().all()
                     .when().get("/api/users/?sort=firstName,asc")
                     .then().log().ifValidationFails()
                     .statusCode(200)
@@ -116,14 +119,14 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "2000-01-01");
             objectNode.put("email", "zzz@asdas.tr");
 
-            given().log().all()
+            given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().post("/api/users")
                     .then().log().ifValidationFails()
                     .statusCode(201);
 
-            given().log().all()
+            given(spec).log().all()
                     .when().get("/api/users/?sort=firstName,desc")
                     .then().log().ifValidationFails()
                     .statusCode(200)
@@ -132,7 +135,6 @@ class RestApiTests {
     }
 
     @Nested
-    @DirtiesContext(classMode = AFTER_EACH_TEST_METHOD)
     public class PostMethodTests {
 
         @Test
@@ -144,7 +146,7 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "");
             objectNode.put("email", "");
 
-            given().log().all()
+            given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().post("/api/users")
@@ -161,7 +163,7 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "2000-01-01");
             objectNode.put("email", "asdas@asdas.ru");
 
-            ObjectNode user = given().log().all()
+            ObjectNode user = given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().post("/api/users")
@@ -185,7 +187,7 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "2000-01-01");
             objectNode.put("email", "tgkdl@asdas.ru");
 
-            ObjectNode user = given().log().all()
+            ObjectNode user = given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().post("/api/users")
@@ -209,7 +211,7 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "2000-01-01");
             objectNode.put("email", "alyona@asdas.ru");
 
-            given().log().all()
+            given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().post("/api/users")
@@ -227,7 +229,7 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "2000-01-01");
             objectNode.put("email", "alyona@asdas.ru");
 
-            given().log().all()
+            given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().post("/api/users")
@@ -245,7 +247,7 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "2000-01-01");
             objectNode.put("email", "alyona@asdas.ru");
 
-            given().log().all()
+            given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().post("/api/users")
@@ -263,7 +265,7 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "2000-01-01");
             objectNode.put("email", "alyona@asdas.ru");
 
-            given().log().all()
+            given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().post("/api/users")
@@ -281,7 +283,7 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "2000-01-01");
             objectNode.put("email", ")(*&^54678jhgf");
 
-            given().log().all()
+            given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().post("/api/users")
@@ -293,7 +295,7 @@ class RestApiTests {
         @Test
         public void shouldNotCreateNewUserWhenEmailAlreadyExists() {
             ObjectMapper objectMapper = new ObjectMapper();
-            ObjectNode existingUser = given().log().all()
+            ObjectNode existingUser = given(spec).log().all()
                     .contentType(ContentType.JSON)
                     .when().get("/api/users/5")
                     .then().log().ifValidationFails()
@@ -306,7 +308,7 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "2000-01-01");
             objectNode.put("email", existingUser.get("email"));
 
-            given().log().all()
+            given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().post("/api/users")
@@ -325,7 +327,7 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "2000.01.01");
             objectNode.put("email", "kjhgh@asdas.ru");
 
-            given().log().all()
+            given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().post("/api/users")
@@ -344,7 +346,7 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "3000-01-01");
             objectNode.put("email", "kjhgh@asdas.ru");
 
-            given().log().all()
+            given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().post("/api/users")
@@ -356,7 +358,6 @@ class RestApiTests {
     }
 
     @Nested
-    @DirtiesContext(classMode = AFTER_EACH_TEST_METHOD)
     public class PutMethodTests {
 
         @Test
@@ -368,7 +369,7 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "1967-01-01");
             objectNode.put("email", "juli@asdas.ru");
 
-            ObjectNode user = given().log().all()
+            ObjectNode user = given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().put("/api/users/3")
@@ -392,7 +393,7 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "");
             objectNode.put("email", "fjgkgk@gdkd.com");
 
-            given().log().all()
+            given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().put("/api/users/2")
@@ -411,7 +412,7 @@ class RestApiTests {
             objectNode.put("dayOfBirth", "1989-03-02");
             objectNode.put("email", "mari@gjgj.com");
 
-            ObjectNode user = given().log().all()
+            ObjectNode user = given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().put("/api/users/51")
@@ -429,7 +430,6 @@ class RestApiTests {
     }
 
     @Nested
-    @DirtiesContext(classMode = AFTER_EACH_TEST_METHOD)
     public class PatchMethodTests {
 
         @Test
@@ -439,7 +439,7 @@ class RestApiTests {
             objectNode.put("firstName", "Ani");
             objectNode.put("email", "ani@asdas.ru");
 
-            ObjectNode userBeforePatch = given().log().all()
+            ObjectNode userBeforePatch = given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().get("/api/users/12")
@@ -447,7 +447,7 @@ class RestApiTests {
                     .statusCode(200)
                     .extract().body().as(ObjectNode.class);
 
-            ObjectNode userAfterPatch = given().log().all()
+            ObjectNode userAfterPatch = given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().patch("/api/users/12")
@@ -468,7 +468,7 @@ class RestApiTests {
             ObjectNode objectNode = objectMapper.createObjectNode();
             objectNode.put("firstName", "Mari");
 
-            given().log().all()
+            given(spec).log().all()
                     .body(objectNode)
                     .contentType(ContentType.JSON)
                     .when().patch("/api/users/55")
@@ -478,16 +478,15 @@ class RestApiTests {
     }
 
     @Nested
-    @DirtiesContext(classMode = AFTER_EACH_TEST_METHOD)
     public class DeleteMethodTests {
 
         @Test
         public void shouldDeleteExistingUser() {
-            given().log().all()
+            given(spec).log().all()
                     .when().delete("/api/users/1")
                     .then().log().ifValidationFails()
                     .statusCode(204);
-            given().log().all()
+            given(spec).log().all()
                     .when().get("/api/users")
                     .then().log().ifValidationFails()
                     .statusCode(200)
@@ -497,7 +496,7 @@ class RestApiTests {
 
         @Test
         public void shouldDoNothingWhenDeleteNotExistingUser() {
-            given().log().all()
+            given(spec).log().all()
                     .when().delete("/api/users/40")
                     .then().log().ifValidationFails()
                     .statusCode(404);
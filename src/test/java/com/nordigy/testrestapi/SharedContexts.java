@@ -0,0 +1,22 @@
+package com.nordigy.testrestapi;
+
+/**
+ * Names of the {@code @ResourceLock}s of test classes that get the same cached application context. Test classes run
+ * concurrently (see {@code junit-platform.properties}), but classes of one context share its database, so they must
+ * not run at the same time as each other.
+ */
+final class SharedContexts {
+
+    /**
+     * {@code @SpringBootTest(webEnvironment = RANDOM_PORT)} without properties.
+     */
+    static final String DEFAULT = "context:default";
+
+    /**
+     * {@code @SpringBootTest(webEnvironment = RANDOM_PORT, properties = "spring.datasource.generate-unique-name=true")}.
+     */
+    static final String UNIQUE_DATABASE = "context:unique-database";
+
+    private SharedContexts() {
+    }
+}
@@ -0,0 +1,198 @@
+package com.nordigy.testrestapi;
+
+import com.nordigy.testrestapi.repository.UserRepository;
+import com.nordigy.testrestapi.service.UserSearchIndex;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "spring.datasource.generate-unique-name=true", "app.bulk.max-users=5" })
+@ExtendWith(ResetDatabaseExtension.class)
+class UserBulkTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldUpdateMatchingUsersAndRefreshViews() throws InterruptedException {
+        List<String> bulkovs = List.of(create("Ivan", "Bulkov", "ivan.bulkov@asdas.ru"),
+                create("Petr", "Bulkov", "petr.bulkov@asdas.ru"),
+                create("Anna", "Bulkova", "anna.bulkova@asdas.ru"));
+        String eTag = given(spec).when().get(bulkovs.get(0)).then().extract().header("ETag");
+
+        given(spec).log().all()
+                .contentType(ContentType.JSON)
+                .body("{\"firstName\": \"Renamed\", \"dayOfBirth\": \"1990-05-17\", \"id\": 1}")
+                .when().patch("/api/users?lastName=Bulkov")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("affected", is(2));
+
+        given(spec).when().get("/api/users?lastName=Bulkov&sort=id")
+                .then().statusCode(200)
+                .body("_embedded.users.firstName", contains("Renamed", "Renamed"))
+                .body("_embedded.users.dayOfBirth", everyItem(is("1990-05-17")))
+                .body("_embedded.users.email", contains("ivan.bulkov@asdas.ru", "petr.bulkov@asdas.ru"));
+        // the version is bumped, so cached copies are revalidated
+        given(spec).header("If-None-Match", eTag)
+                .when().get(bulkovs.get(0))
+                .then().statusCode(200);
+        given(spec).when().get(bulkovs.get(2))
+                .then().statusCode(200)
+                .body("firstName", is("Anna"));
+
+        for (int i = 0; i < 100 && !searchIndex.isReady(); i++) {
+            Thread.sleep(100);
+        }
+        given(spec).when().get("/api/users/search?q=renamed bulkov")
+                .then().statusCode(200)
+                .body("_embedded.users", hasSize(2));
+    }
+
+    @Test
+    public void shouldValidateChangesBeforeWriting() {
+        create("Ivan", "Bulkov", "ivan.bulkov@asdas.ru");
+
+        given(spec).log().all()
+                .contentType(ContentType.JSON)
+                .body("{\"firstName\": \"I\", \"email\": \"not an email\"}")
+                .when().patch("/api/users?lastName=Bulkov")
+                .then().log().ifValidationFails()
+                .statusCode(400)
+                .body("message", is("Validation error"))
+                .body("subErrors.field", containsInAnyOrder("firstName", "email"));
+        given(spec).log().all()
+                .contentType(ContentType.JSON)
+                .body("{\"version\": 7}")
+                .when().patch("/api/users?lastName=Bulkov")
+                .then().log().ifValidationFails()
+                .statusCode(400)
+                .body("message", is("Nothing to update, set some of [firstName, lastName, email, dayOfBirth]"));
+
+        given(spec).when().get("/api/users?lastName=Bulkov")
+                .then().statusCode(200)
+                .body("_embedded.users.firstName", contains("Ivan"));
+    }
+
+    @Test
+    public void shouldSetEmailOfSingleUserOnly() {
+        create("Ivan", "Bulkov", "ivan.bulkov@asdas.ru");
+        create("Petr", "Bulkov", "petr.bulkov@asdas.ru");
+
+        given(spec).log().all()
+                .contentType(ContentType.JSON)
+                .body("{\"email\": \"bulkov@asdas.ru\"}")
+                .when().patch("/api/users?lastName=Bulkov")
+                .then().log().ifValidationFails()
+                .statusCode(400)
+                .body("message", is("The filter matches more than one user, an email can only be set on one"));
+        given(spec).log().all()
+                .contentType(ContentType.JSON)
+                .body("{\"email\": \"petr.bulkov@asdas.ru\"}")
+                .when().patch("/api/users?lastName=Bulkov&firstName=Ivan")
+                .then().log().ifValidationFails()
+                .statusCode(409);
+        given(spec).log().all()
+                .contentType(ContentType.JSON)
+                .body("{\"email\": \"bulkov@asdas.ru\"}")
+                .when().patch("/api/users?lastName=Bulkov&firstName=Ivan")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("affected", is(1));
+
+        given(spec).when().get("/api/users?lastName=Bulkov&sort=id")
+                .then().statusCode(200)
+                .body("_embedded.users.email", contains("bulkov@asdas.ru", "petr.bulkov@asdas.ru"));
+    }
+
+    @Test
+    public void shouldDeleteMatchingUsers() {
+        String ivan = create("Ivan", "Bulkov", "ivan.bulkov@asdas.ru");
+        create("Petr", "Bulkov", "petr.bulkov@asdas.ru");
+        long users = userRepository.count();
+
+        given(spec).log().all()
+                .when().delete("/api/users?lastName=Bulkov")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("affected", is(2));
+
+        assertThat(userRepository.count()).isEqualTo(users - 2);
+        given(spec).when().get("/api/users")
+                .then().statusCode(200)
+                .body("page.totalElements", is((int) users - 2));
+        given(spec).when().get(ivan).then().statusCode(404);
+        given(spec).when().get("/api/users?lastName=Bulkov")
+                .then().statusCode(200)
+                .body("_embedded.users", empty());
+        given(spec).when().delete("/api/users?lastName=Bulkov")
+                .then().statusCode(200)
+                .body("affected", is(0));
+    }
+
+    @Test
+    public void shouldRefuseUnfilteredAndTooBroadRequests() {
+        long users = userRepository.count();
+
+        given(spec).log().all()
+                .when().delete("/api/users?page=0&size=5")
+                .then().log().ifValidationFails()
+                .statusCode(400)
+                .body("message", is("A filter is required, pass all=true to change every user"));
+        given(spec).log().all()
+                .contentType(ContentType.JSON)
+                .body("{\"firstName\": \"Everyone\"}")
+                .when().patch("/api/users")
+                .then().log().ifValidationFails()
+                .statusCode(400)
+                .body("message", is("A filter is required, pass all=true to change every user"));
+        given(spec).log().all()
+                .when().delete("/api/users?all=true")
+                .then().log().ifValidationFails()
+                .statusCode(400)
+                .body("message", is("The filter matches more than 5 users, narrow it down"));
+
+        assertThat(userRepository.count()).isEqualTo(users);
+    }
+
+    private String create(String firstName, String lastName, String email) {
+        return given(spec).contentType(ContentType.JSON)
+                .body("{\"firstName\": \"" + firstName + "\", \"lastName\": \"" + lastName
+                        + "\", \"dayOfBirth\": \"2000-01-01\", \"email\": \"" + email + "\"}")
+                .when().post("/api/users")
+                .then().statusCode(201)
+                .extract().header("Location");
+    }
+}
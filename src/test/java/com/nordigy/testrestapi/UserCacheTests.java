@@ -0,0 +1,73 @@
+package com.nordigy.testrestapi;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.annotation.PostConstruct;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@ActiveProfiles("cache")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.generate-unique-name=true")
+class UserCacheTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldServeRepeatedLookupsFromCache() {
+        given(spec).when().get("/api/users/2").then().statusCode(200);
+        long hits = statistics().getLong("users.hits");
+
+        given(spec).when().get("/api/users/2").then().statusCode(200);
+
+        assertThat(statistics().getLong("users.hits")).isGreaterThan(hits);
+    }
+
+    @Test
+    public void shouldServeRepeatedFiltersFromQueryCache() {
+        given(spec).when().get("/api/users?lastName=Doe").then().statusCode(200);
+        long hits = statistics().getLong("'default-query-results-region'.hits");
+
+        given(spec).when().get("/api/users?lastName=Doe").then().statusCode(200);
+
+        assertThat(statistics().getLong("'default-query-results-region'.hits")).isGreaterThan(hits);
+    }
+
+    @Test
+    public void shouldNotServeStaleUserAfterUpdate() {
+        given(spec).when().get("/api/users/3").then().statusCode(200);
+        given(spec).when().get("/api/users?firstName=Cached").then().body("page.totalElements", equalTo(0));
+        long invalidations = statistics().getLong("users.invalidations");
+
+        given(spec).contentType(ContentType.JSON)
+                .body("{\"firstName\": \"Cached\"}")
+                .when().patch("/api/users/3")
+                .then().statusCode(200);
+
+        given(spec).when().get("/api/users/3").then().body("firstName", equalTo("Cached"));
+        given(spec).when().get("/api/users?firstName=Cached").then().body("page.totalElements", equalTo(1));
+        assertThat(statistics().getLong("users.invalidations")).isGreaterThan(invalidations);
+    }
+
+    private JsonPath statistics() {
+        return given(spec).when().get("/api/cache").then().statusCode(200).extract().jsonPath();
+    }
+}
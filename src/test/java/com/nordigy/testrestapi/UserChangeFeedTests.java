@@ -0,0 +1,223 @@
+package com.nordigy.testrestapi;
+
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.UserRepository;
+import com.nordigy.testrestapi.service.UserChangeFeed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "spring.datasource.generate-unique-name=true", "app.changes.buffer-size=4",
+                "app.changes.flush-interval=200ms", "app.changes.long-poll-timeout=1s" })
+class UserChangeFeedTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @Autowired
+    private UserChangeFeed changeFeed;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldStreamWritesAndResumeAfterLastEventId() throws Exception {
+        try (EventStream stream = EventStream.open(port, null)) {
+            String user = create("Stream", "Reader", "stream.reader@asdas.ru");
+            given(spec).contentType(ContentType.JSON).body("{\"firstName\": \"Streamed\"}")
+                    .when().patch(user)
+                    .then().statusCode(200);
+            given(spec).when().delete(user).then().statusCode(204);
+
+            Map<String, String> created = stream.next();
+            Map<String, String> updated = stream.next();
+            Map<String, String> deleted = stream.next();
+            assertThat(created.get("event")).isEqualTo("created");
+            assertThat(JsonPath.from(created.get("data")).getString("user.email")).isEqualTo("stream.reader@asdas.ru");
+            assertThat(updated.get("event")).isEqualTo("updated");
+            assertThat(JsonPath.from(updated.get("data")).getString("user.firstName")).isEqualTo("Streamed");
+            assertThat(deleted.get("event")).isEqualTo("deleted");
+            assertThat(JsonPath.from(deleted.get("data")).getString("user")).isNull();
+            assertThat(Long.parseLong(deleted.get("id"))).isEqualTo(Long.parseLong(created.get("id")) + 2);
+
+            try (EventStream resumed = EventStream.open(port, created.get("id"))) {
+                assertThat(resumed.next()).isEqualTo(updated);
+                assertThat(resumed.next()).isEqualTo(deleted);
+            }
+        }
+    }
+
+    @Test
+    public void shouldResetWhenResumingFromUnbufferedSequence() throws Exception {
+        try (EventStream stream = EventStream.open(port, "1")) {
+            Map<String, String> reset = stream.next();
+            assertThat(reset.get("event")).isEqualTo("reset");
+            assertThat(JsonPath.from(reset.get("data")).getString("sequence")).isEqualTo(reset.get("id"));
+        }
+    }
+
+    @Test
+    public void shouldDisconnectSubscriberThatFallsBehindTheBuffer() throws Exception {
+        double before = meterRegistry.counter("users.changes.disconnected").count();
+        User user = userRepository.findAll().iterator().next();
+        try (EventStream stream = EventStream.open(port, null)) {
+            // more changes than the buffer holds within one flush interval
+            for (int i = 0; i < 5; i++) {
+                changeFeed.updated(user);
+            }
+            assertThat(stream.awaitEnd()).isTrue();
+        }
+        // streams closed by earlier tests are only noticed on the next write and may be counted too
+        assertThat(meterRegistry.counter("users.changes.disconnected").count()).isGreaterThanOrEqualTo(before + 1);
+    }
+
+    @Test
+    public void shouldAnswerLongPollWithChanges() throws Exception {
+        // without changes the poll is answered empty after the timeout, with the sequence to poll after
+        long sequence = given(spec).log().all()
+                .when().get("/api/users/changes")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("reset", is(false))
+                .body("changes", empty())
+                .extract().jsonPath().getLong("sequence");
+
+        CompletableFuture<JsonPath> poll = CompletableFuture.supplyAsync(() -> given(spec)
+                .queryParam("after", sequence)
+                .when().get("/api/users/changes")
+                .then().statusCode(200)
+                .extract().jsonPath());
+        Thread.sleep(200);
+        create("Long", "Poller", "long.poller@asdas.ru");
+
+        JsonPath changes = poll.get(5, TimeUnit.SECONDS);
+        assertThat(changes.getList("changes.type")).containsExactly("CREATED");
+        assertThat(changes.getString("changes[0].user.email")).isEqualTo("long.poller@asdas.ru");
+        assertThat(changes.getLong("sequence")).isEqualTo(sequence + 1);
+
+        given(spec).log().all()
+                .when().get("/api/users/changes?after=1")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("reset", is(true))
+                .body("changes", empty());
+    }
+
+    private String create(String firstName, String lastName, String email) {
+        return given(spec).contentType(ContentType.JSON)
+                .body("{\"firstName\": \"" + firstName + "\", \"lastName\": \"" + lastName
+                        + "\", \"dayOfBirth\": \"2000-01-01\", \"email\": \"" + email + "\"}")
+                .when().post("/api/users")
+                .then().statusCode(201)
+                .extract().header("Location");
+    }
+
+    /**
+     * Reads the events of a {@code text/event-stream} response in the background, skipping comments.
+     */
+    private static final class EventStream implements AutoCloseable {
+
+        private final InputStream body;
+        private final BlockingQueue<Map<String, String>> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch ended = new CountDownLatch(1);
+
+        private EventStream(InputStream body) {
+            this.body = body;
+            Thread reader = new Thread(this::read, "event-stream-reader");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        static EventStream open(int port, String lastEventId) throws IOException, InterruptedException {
+            HttpRequest.Builder request = HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/api/users/changes"))
+                    .header("Accept", "text/event-stream");
+            if (lastEventId != null) {
+                request.header("Last-Event-ID", lastEventId);
+            }
+            HttpResponse<InputStream> response = HttpClient.newHttpClient()
+                    .send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(
+                    contentType -> assertThat(contentType).startsWith("text/event-stream"));
+            return new EventStream(response.body());
+        }
+
+        Map<String, String> next() throws InterruptedException {
+            Map<String, String> event = events.poll(5, TimeUnit.SECONDS);
+            assertThat(event).as("next event").isNotNull();
+            return event;
+        }
+
+        boolean awaitEnd() throws InterruptedException {
+            return ended.await(5, TimeUnit.SECONDS);
+        }
+
+        private void read() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                Map<String, String> event = new HashMap<>();
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    if (line.isEmpty()) {
+                        if (!event.isEmpty()) {
+                            events.add(event);
+                            event = new HashMap<>();
+                        }
+                    } else if (!line.startsWith(":")) {
+                        int colon = line.indexOf(':');
+                        event.put(line.substring(0, colon), line.substring(colon + 1).trim());
+                    }
+                }
+            } catch (IOException ex) {
+                // closed by the test
+            } finally {
+                ended.countDown();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            body.close();
+        }
+    }
+}
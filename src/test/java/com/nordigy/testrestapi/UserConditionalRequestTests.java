@@ -0,0 +1,103 @@
+package com.nordigy.testrestapi;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import javax.annotation.PostConstruct;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.emptyString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.generate-unique-name=true")
+@ResourceLock(SharedContexts.UNIQUE_DATABASE)
+class UserConditionalRequestTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedForUnchangedUser() {
+        String eTag = given(spec).log().all()
+                .when().get("/api/users/4")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .header("Last-Modified", notNullValue())
+                .extract().header("ETag");
+
+        given(spec).log().all()
+                .header("If-None-Match", eTag)
+                .when().get("/api/users/4")
+                .then().log().ifValidationFails()
+                .statusCode(304)
+                .body(emptyString());
+    }
+
+    @Test
+    public void shouldRejectUpdateWithStaleETag() {
+        String eTag = given(spec).when().get("/api/users/6").then().extract().header("ETag");
+
+        String newETag = given(spec).log().all()
+                .header("If-Match", eTag)
+                .contentType(ContentType.JSON)
+                .body("{\"firstName\": \"Fresh\"}")
+                .when().patch("/api/users/6")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .extract().header("ETag");
+        assertThat(newETag).isNotEqualTo(eTag);
+
+        given(spec).log().all()
+                .header("If-Match", eTag)
+                .contentType(ContentType.JSON)
+                .body("{\"firstName\": \"Stale\"}")
+                .when().patch("/api/users/6")
+                .then().log().ifValidationFails()
+                .statusCode(412);
+
+        given(spec).when().get("/api/users/6").then().body("firstName", equalTo("Fresh"));
+    }
+
+    @Test
+    public void shouldChangeCollectionETagOnlyAfterWrite() {
+        String eTag = given(spec).log().all()
+                .when().get("/api/users?sort=email")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .extract().header("ETag");
+        assertThat(eTag).isNotNull();
+
+        given(spec).log().all()
+                .header("If-None-Match", eTag)
+                .when().get("/api/users?sort=email")
+                .then().log().ifValidationFails()
+                .statusCode(304);
+
+        given(spec).contentType(ContentType.JSON)
+                .body("{\"lastName\": \"Changed\"}")
+                .when().patch("/api/users/7")
+                .then().statusCode(200);
+
+        given(spec).log().all()
+                .header("If-None-Match", eTag)
+                .when().get("/api/users?sort=email")
+                .then().log().ifValidationFails()
+                .statusCode(200);
+    }
+}
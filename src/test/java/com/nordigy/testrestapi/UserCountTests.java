@@ -0,0 +1,168 @@
+package com.nordigy.testrestapi;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.annotation.PostConstruct;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "spring.datasource.generate-unique-name=true", "app.count.resync-interval=1h",
+                "app.count.estimate-limit=3" })
+@ExtendWith(ResetDatabaseExtension.class)
+class UserCountTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldKeepTotalOfAllUsersFromWriteEvents() {
+        int total = total("/api/users?size=5");
+
+        String user = create("Ivan", "Countov", "ivan.countov@asdas.ru");
+        assertThat(total("/api/users?size=5")).isEqualTo(total + 1);
+        given(spec).when().delete(user).then().statusCode(204);
+        assertThat(total("/api/users?size=5")).isEqualTo(total);
+
+        // a write that bypasses the events is not counted until the next resync
+        insert(100_000, "Countov");
+        assertThat(total("/api/users?size=5")).isEqualTo(total);
+    }
+
+    @Test
+    public void shouldCacheFilteredTotalsUntilAWrite() {
+        create("Ivan", "Countov", "ivan.countov@asdas.ru");
+        create("Petr", "Countov", "petr.countov@asdas.ru");
+        double hits = cacheGets("hit");
+
+        assertThat(total("/api/users?lastName=Countov&firstName=Ivan&size=1")).isEqualTo(1);
+        insert(100_000, "Countov");
+        // the same filter with its conditions in another order
+        assertThat(total("/api/users?firstName=Ivan&lastName=Countov&size=1")).isEqualTo(1);
+        assertThat(cacheGets("hit")).isEqualTo(hits + 1);
+
+        create("Anna", "Countov", "anna.countov@asdas.ru");
+        assertThat(total("/api/users?lastName=Countov&firstName=Ivan&size=1")).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldSkipCountWhenNotRequested() {
+        int total = total("/api/users?size=5");
+
+        given(spec).log().all()
+                .when().get("/api/users?size=5&sort=id&count=false")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("_embedded.users", hasSize(5))
+                .body("page.size", is(5))
+                .body("page.number", is(0))
+                .body("page", not(hasKey("totalElements")))
+                .body("page", not(hasKey("totalPages")))
+                .body("_links.next.href", containsString("page=1"));
+
+        int lastPage = (total - 1) / 5;
+        given(spec).log().all()
+                .when().get("/api/users?size=5&sort=id&count=false&page=" + lastPage)
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("_embedded.users", hasSize(total - lastPage * 5))
+                .body("page", not(hasKey("totalElements")))
+                .body("_links.next", nullValue())
+                .body("_links.prev", notNullValue());
+        given(spec).log().all()
+                .when().get("/api/users?size=5&fields=id&count=false")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("_embedded.users", hasSize(5))
+                .body("page", not(hasKey("totalElements")))
+                .body("_links.next", notNullValue());
+    }
+
+    @Test
+    public void shouldCountUpToLimitForEstimate() {
+        for (int i = 0; i < 6; i++) {
+            create("Ivan", "Countov", "ivan.countov" + i + "@asdas.ru");
+        }
+
+        // more than the limit of 3
+        assertThat(total("/api/users?lastName=Countov&size=1&count=estimate")).isEqualTo(4);
+        // a page ending past the limit is counted up to its end and still has a next one
+        given(spec).log().all()
+                .when().get("/api/users?lastName=Countov&size=2&page=1&count=estimate")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("page.totalElements", is(5))
+                .body("_links.next", notNullValue());
+        assertThat(total("/api/users?lastName=Countov&size=1")).isEqualTo(6);
+        // an exact total at hand is used
+        assertThat(total("/api/users?lastName=Countov&size=1&count=estimate")).isEqualTo(6);
+        assertThat(total("/api/users?size=1&count=estimate")).isEqualTo(total("/api/users?size=1"));
+    }
+
+    @Test
+    public void shouldRejectUnknownCountMode() {
+        given(spec).log().all()
+                .when().get("/api/users?count=maybe")
+                .then().log().ifValidationFails()
+                .statusCode(400)
+                .body("message", is("Invalid value of parameter 'count'"));
+    }
+
+    private int total(String path) {
+        return given(spec).log().all()
+                .when().get(path)
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .extract().jsonPath().getInt("page.totalElements");
+    }
+
+    private void insert(long id, String lastName) {
+        jdbcTemplate.update("INSERT INTO user (id, first_name, last_name, email, day_of_birth, version) "
+                + "VALUES (?, 'Ivan', ?, ?, DATE '2000-01-01', 0)", id, lastName, "jdbc" + id + "@asdas.ru");
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "userCounts").tag("result", result)
+                .functionCounter().count();
+    }
+
+    private String create(String firstName, String lastName, String email) {
+        return given(spec).contentType(ContentType.JSON)
+                .body("{\"firstName\": \"" + firstName + "\", \"lastName\": \"" + lastName
+                        + "\", \"dayOfBirth\": \"2000-01-01\", \"email\": \"" + email + "\"}")
+                .when().post("/api/users")
+                .then().statusCode(201)
+                .extract().header("Location");
+    }
+}
@@ -0,0 +1,145 @@
+package com.nordigy.testrestapi;
+
+import com.nordigy.testrestapi.api.UserRequestExecutionHandlerAdapter;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerAdapter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.mvc.Controller;
+import org.springframework.web.servlet.mvc.SimpleControllerHandlerAdapter;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.DispatcherType;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "spring.datasource.generate-unique-name=true", "app.execution.mode=bounded",
+                "app.execution.threads=2", "app.execution.queue-capacity=5" })
+class UserExecutionModeTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @Autowired
+    @Qualifier("handlerExceptionResolver")
+    private HandlerExceptionResolver handlerExceptionResolver;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldServeUsersOnBoundedExecutor() {
+        given(spec).log().all()
+                .when().get("/api/users/1")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("email", notNullValue());
+
+        String eTag = given(spec).when().get("/api/users").then().statusCode(200).extract().header("ETag");
+        given(spec).log().all()
+                .header("If-None-Match", eTag)
+                .when().get("/api/users")
+                .then().log().ifValidationFails()
+                .statusCode(304);
+
+        String metrics = given(spec).when().get("/actuator/prometheus").then().statusCode(200).extract().asString();
+        assertThat(metrics)
+                .containsPattern("executor_completed_tasks_total\\{name=\"users.api\",\\} [1-9]")
+                .contains("executor_queue_remaining_tasks{name=\"users.api\",}")
+                .containsPattern("http_server_requests_seconds_count\\{.*status=\"200\",uri=\"/api/users/\\{id\\}\"");
+    }
+
+    @Test
+    public void shouldKeepErrorMappingOnBoundedExecutor() {
+        given(spec).log().all()
+                .contentType(ContentType.JSON)
+                .body("{\"firstName\": \"\"}")
+                .when().post("/api/users")
+                .then().log().ifValidationFails()
+                .statusCode(400)
+                .body("status", is("BAD_REQUEST"))
+                .body("subErrors.field", hasItem("firstName"));
+    }
+
+    @Test
+    public void shouldAnswerServiceUnavailableWhenExecutorIsFull() throws Exception {
+        HandlerAdapter handlerAdapter = new SimpleControllerHandlerAdapter();
+        UserRequestExecutionHandlerAdapter adapter = new UserRequestExecutionHandlerAdapter(
+                new RejectingExecutorService(), "/api/users", Set.of(), () -> List.of(handlerAdapter));
+        Controller handler = (request, response) -> {
+            throw new IllegalStateException("The handler should not run");
+        };
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.setAsyncSupported(true);
+        request.addHeader("Accept", "application/json");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(adapter.handle(request, response, handler)).isNull();
+        assertThat(request.isAsyncStarted()).isTrue();
+
+        // the async dispatch
+        request.setDispatcherType(DispatcherType.ASYNC);
+        Throwable rejected = catchThrowable(() -> adapter.handle(request, response, handler));
+        assertThat(rejected).isInstanceOf(RejectedExecutionException.class);
+        handlerExceptionResolver.resolveException(request, response, null, (Exception) rejected);
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getContentAsString()).contains("SERVICE_UNAVAILABLE", "Server is busy");
+    }
+
+    private static class RejectingExecutorService extends AbstractExecutorService {
+
+        @Override
+        public void execute(Runnable command) {
+            throw new RejectedExecutionException("Queue is full");
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.nordigy.testrestapi;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import javax.annotation.PostConstruct;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.generate-unique-name=true")
+@ResourceLock(SharedContexts.UNIQUE_DATABASE)
+class UserExportTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldExportAllUsersAsNdjson() {
+        int total = given(spec).when().get("/api/users").then().extract().path("page.totalElements");
+
+        String body = given(spec).log().all()
+                .when().get("/api/users/export")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .contentType(startsWith("application/x-ndjson"))
+                .extract().asString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(total);
+        assertThat(lines[0]).startsWith("{\"id\":1,").containsPattern("\"dayOfBirth\":\"\\d{4}-\\d{2}-\\d{2}\"");
+    }
+
+    @Test
+    public void shouldExportAllUsersAsCsv() {
+        int total = given(spec).when().get("/api/users").then().extract().path("page.totalElements");
+
+        String body = given(spec).log().all()
+                .accept("text/csv")
+                .when().get("/api/users/export")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .contentType(startsWith("text/csv"))
+                .extract().asString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(total + 1);
+        assertThat(lines[0]).isEqualTo("id,firstName,lastName,email,dayOfBirth");
+        assertThat(lines[1]).startsWith("1,");
+    }
+
+    @Test
+    public void shouldNotExportWhenFormatNotAcceptable() {
+        given(spec).log().all()
+                .accept("application/xml")
+                .when().get("/api/users/export")
+                .then().log().ifValidationFails()
+                .statusCode(406);
+    }
+}
@@ -0,0 +1,68 @@
+package com.nordigy.testrestapi;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.annotation.PostConstruct;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+
+@ActiveProfiles("fast-start")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserFastStartTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldNotCreateUnusedBeansAtStartup() {
+        assertThat(context.getBeanFactory().containsSingleton("userExportService")).isFalse();
+    }
+
+    @Test
+    public void shouldBuildApiDocumentationOnFirstRequest() {
+        given(spec).log().all()
+                .when().get("/v2/api-docs")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("info.title", is("Test REST API"))
+                .body("paths", hasKey("/api/users"));
+    }
+
+    @Test
+    public void shouldServeUsersAndKeepPoolAndHibernateMetrics() {
+        given(spec).log().all()
+                .when().get("/api/users/1")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("id", is(1));
+
+        String metrics = given(spec).when().get("/actuator/prometheus")
+                .then().statusCode(200)
+                .extract().asString();
+        assertThat(metrics)
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_statements_total")
+                .containsPattern("spring_data_repository_invocations_seconds_count\\{.*method=\"findById\"");
+    }
+}
@@ -0,0 +1,96 @@
+package com.nordigy.testrestapi;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.path.json.JsonPath;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.generate-unique-name=true")
+@ResourceLock(SharedContexts.UNIQUE_DATABASE)
+class UserFieldsTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldReturnOnlyRequestedFields() {
+        JsonPath full = get("/api/users?size=5&sort=email");
+        JsonPath sparse = get("/api/users?fields=id,email&size=5&sort=email");
+
+        assertThat(sparse.getList("_embedded.users.id")).isEqualTo(full.getList("_embedded.users.id"));
+        assertThat(sparse.getList("_embedded.users.email")).isEqualTo(full.getList("_embedded.users.email"));
+        assertThat(sparse.<Map<String, Object>>getList("_embedded.users"))
+                .allSatisfy(user -> assertThat(user).containsOnlyKeys("id", "email"));
+        assertThat(sparse.getMap("page")).isEqualTo(full.getMap("page"));
+        assertThat(sparse.getString("_links.next.href")).contains("fields=id").contains("page=1");
+
+        assertThat(get("/api/users?fields=id&size=1").getList("_embedded.users.id")).hasSize(1);
+    }
+
+    @Test
+    public void shouldFilterLikeCollectionResource() {
+        String firstName = given(spec).when().get("/api/users/1").then().extract().path("firstName");
+
+        JsonPath page = get("/api/users?fields=firstName&fields=dayOfBirth&firstName=" + firstName);
+        assertThat(page.getList("_embedded.users.firstName", String.class)).isNotEmpty().containsOnly(firstName);
+        assertThat(page.getList("_embedded.users.dayOfBirth", String.class))
+                .allSatisfy(day -> assertThat(day).matches("\\d{4}-\\d{2}-\\d{2}"));
+
+        given(spec).log().all()
+                .when().get("/api/users?fields=id&firstName=Nobody")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("_embedded.users.size()", is(0))
+                .body("page.totalElements", is(0));
+    }
+
+    @Test
+    public void shouldRenderProjection() {
+        JsonPath page = get("/api/users?projection=summary&size=3");
+        assertThat(page.<Map<String, Object>>getList("_embedded.users"))
+                .hasSize(3)
+                .allSatisfy(user -> assertThat(user).containsOnlyKeys("id", "email", "_links"));
+    }
+
+    @Test
+    public void shouldRejectUnknownFieldOrSort() {
+        given(spec).log().all()
+                .when().get("/api/users?fields=id,password")
+                .then().log().ifValidationFails()
+                .statusCode(400)
+                .body("message", is("Invalid value of parameter 'fields'"));
+
+        given(spec).log().all()
+                .when().get("/api/users?fields=id&sort=version")
+                .then().log().ifValidationFails()
+                .statusCode(400)
+                .body("message", is("Invalid value of parameter 'sort'"));
+    }
+
+    private JsonPath get(String uri) {
+        return given(spec).log().all()
+                .when().get(uri)
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .extract().jsonPath();
+    }
+}
@@ -0,0 +1,88 @@
+package com.nordigy.testrestapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import javax.annotation.PostConstruct;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.config.EncoderConfig.encoderConfig;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+// Runs against its own in-memory database, so the imported users do not leak into RestApiTests.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.generate-unique-name=true")
+@ResourceLock(SharedContexts.UNIQUE_DATABASE)
+class UserImportTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldImportJsonArrayOfUsers() {
+        int totalBefore = given(spec).when().get("/api/users").then().extract().path("page.totalElements");
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        ArrayNode users = objectMapper.createArrayNode();
+        for (int i = 0; i < 3; i++) {
+            ObjectNode objectNode = users.addObject();
+            objectNode.put("firstName", "Import");
+            objectNode.put("lastName", "Array");
+            objectNode.put("dayOfBirth", "2000-01-01");
+            objectNode.put("email", "import-array-" + i + "@asdas.ru");
+        }
+
+        given(spec).log().all()
+                .body(users)
+                .contentType(ContentType.JSON)
+                .when().post("/api/users/import")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("imported", is(3))
+                .body("rejected", is(0));
+
+        given(spec).log().all()
+                .when().get("/api/users")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("page.totalElements", is(totalBefore + 3));
+    }
+
+    @Test
+    public void shouldReportRejectedUsersWhenImportNdjson() {
+        String body = "{\"firstName\":\"Import\",\"lastName\":\"Ndjson\",\"dayOfBirth\":\"2000-01-01\",\"email\":\"import-ndjson@asdas.ru\"}\n"
+                + "{\"firstName\":\"I\",\"lastName\":\"Ndjson\",\"dayOfBirth\":\"2000-01-01\",\"email\":\"import-short@asdas.ru\"}\n"
+                + "{\"firstName\":\"Import\",\"lastName\":\"Ndjson\",\"dayOfBirth\":\"2000-01-01\",\"email\":\"import-ndjson@asdas.ru\"}\n"
+                + "{\"firstName\":\"Import\",\"lastName\":\"Ndjson\",\"dayOfBirth\":\"2000.01.01\",\"email\":\"import-date@asdas.ru\"}\n"
+                + "{\"firstName\":\"Import\",\"lastName\":\"Ndjson\",\"dayOfBirth\":\"2000-01-01\",\"email\":\"import-last@asdas.ru\"}\n";
+
+        given(spec).log().all()
+                .config(RestAssured.config().encoderConfig(encoderConfig().encodeContentTypeAs("application/x-ndjson", ContentType.TEXT)))
+                .body(body)
+                .contentType("application/x-ndjson")
+                .when().post("/api/users/import")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("imported", is(2))
+                .body("rejected", is(3))
+                .body("errors.object", containsInAnyOrder("users[1]", "users[2]", "users[3]"))
+                .body("errors.field", containsInAnyOrder("firstName", "email", "dayOfBirth"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.nordigy.testrestapi;
+
+import com.nordigy.testrestapi.init.IndexMigration;
+import com.nordigy.testrestapi.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.generate-unique-name=true")
+@ResourceLock(SharedContexts.UNIQUE_DATABASE)
+class UserIndexTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void shouldCreateDeclaredIndexes() {
+        assertThat(userIndexes()).contains(User.LAST_NAME_FIRST_NAME_INDEX.toUpperCase(),
+                User.FIRST_NAME_INDEX.toUpperCase(), User.DAY_OF_BIRTH_INDEX.toUpperCase());
+    }
+
+    @Test
+    public void shouldRecreateDroppedIndexesOnMigration() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP INDEX " + User.DAY_OF_BIRTH_INDEX);
+        assertThat(userIndexes()).doesNotContain(User.DAY_OF_BIRTH_INDEX.toUpperCase());
+
+        new IndexMigration(dataSource).run();
+        new IndexMigration(dataSource).run();
+
+        assertThat(userIndexes()).contains(User.DAY_OF_BIRTH_INDEX.toUpperCase());
+    }
+
+    private List<String> userIndexes() {
+        return new JdbcTemplate(dataSource).queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE table_name = 'USER'", String.class);
+    }
+}
@@ -0,0 +1,112 @@
+package com.nordigy.testrestapi;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.path.json.JsonPath;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.generate-unique-name=true")
+@ResourceLock(SharedContexts.UNIQUE_DATABASE)
+class UserKeysetPaginationTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldWalkAllUsersForwardAndBackward() {
+        int total = given(spec).when().get("/api/users").then().extract().path("page.totalElements");
+
+        List<JsonPath> pages = new ArrayList<>();
+        JsonPath page = get("/api/users?after=&size=7&sort=lastName,desc");
+        pages.add(page);
+        while (page.getString("_links.next.href") != null) {
+            page = get(page.getString("_links.next.href"));
+            pages.add(page);
+        }
+
+        List<String> lastNames = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        pages.forEach(p -> {
+            lastNames.addAll(p.getList("_embedded.users.lastName"));
+            ids.addAll(p.getList("_embedded.users.id"));
+        });
+        assertThat(ids).hasSize(total).doesNotHaveDuplicates();
+        assertThat(lastNames).isSortedAccordingTo(Comparator.reverseOrder());
+
+        JsonPath previous = get(page.getString("_links.prev.href"));
+        assertThat(previous.getList("_embedded.users.id"))
+                .isEqualTo(pages.get(pages.size() - 2).getList("_embedded.users.id"));
+    }
+
+    @Test
+    public void shouldApplyFilterAndCountOnlyWhenRequested() {
+        String firstName = given(spec).when().get("/api/users/1").then().extract().path("firstName");
+
+        JsonPath page = get("/api/users?after=&firstName=" + firstName + "&count=true");
+        assertThat(page.getList("_embedded.users.firstName", String.class)).isNotEmpty().containsOnly(firstName);
+        assertThat(page.getInt("page.totalElements")).isEqualTo(page.getList("_embedded.users").size());
+        assertThat(page.getString("_links.prev.href")).isNull();
+
+        assertThat(get("/api/users?after=&firstName=" + firstName + "&count=estimate").getInt("page.totalElements"))
+                .isEqualTo(page.getInt("page.totalElements"));
+
+        given(spec).log().all()
+                .when().get("/api/users?after=")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("page.totalElements", nullValue())
+                .body("page.number", nullValue());
+        given(spec).log().all()
+                .when().get("/api/users?after=&count=maybe")
+                .then().log().ifValidationFails()
+                .statusCode(400);
+    }
+
+    @Test
+    public void shouldRejectCursorIssuedForAnotherSort() {
+        String next = get("/api/users?after=&size=2&sort=email").getString("_links.next.href");
+        String cursor = next.substring(next.indexOf("after=") + "after=".length());
+
+        given(spec).log().all()
+                .when().get("/api/users?after={cursor}&size=2&sort=firstName", cursor)
+                .then().log().ifValidationFails()
+                .statusCode(400)
+                .body("message", equalTo("Invalid value of parameter 'after'"));
+
+        given(spec).log().all()
+                .when().get("/api/users?after=not-a-cursor")
+                .then().log().ifValidationFails()
+                .statusCode(400);
+    }
+
+    private JsonPath get(String url) {
+        return given(spec).log().all()
+                .urlEncodingEnabled(false)
+                .when().get(url)
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .extract().jsonPath();
+    }
+}
@@ -0,0 +1,50 @@
+package com.nordigy.testrestapi;
+
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.UserRepository;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPersistentStorageTests {
+
+    @TempDir
+    Path dataDir;
+
+    @ParameterizedTest
+    @ValueSource(strings = { "h2-file", "sqlite" })
+    public void shouldKeepUsersAndSkipSeedingOnRestart(String profile) {
+        long id;
+        try (ConfigurableApplicationContext context = start(profile)) {
+            UserRepository userRepository = context.getBean(UserRepository.class);
+            assertThat(userRepository.count()).isEqualTo(20);
+            id = userRepository.save(User.builder()
+                                         .firstName("Stored")
+                                         .lastName("User")
+                                         .email("stored-user@asdas.ru")
+                                         .dayOfBirth(LocalDate.of(2000, 1, 1))
+                                         .build()).getId();
+        }
+
+        try (ConfigurableApplicationContext context = start(profile, "--app.seed.count=1000")) {
+            UserRepository userRepository = context.getBean(UserRepository.class);
+            assertThat(userRepository.count()).isEqualTo(21);
+            assertThat(userRepository.findById(id)).hasValueSatisfying(
+                    user -> assertThat(user.getEmail()).isEqualTo("stored-user@asdas.ru"));
+        }
+    }
+
+    private ConfigurableApplicationContext start(String profile, String... args) {
+        return new SpringApplicationBuilder(TestRestApiApplication.class)
+                .profiles(profile)
+                .properties("server.port=0", "app.data-dir=" + dataDir)
+                .run(args);
+    }
+}
@@ -0,0 +1,209 @@
+package com.nordigy.testrestapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.annotation.PostConstruct;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+
+@ActiveProfiles("reactive")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "spring.datasource.url=jdbc:h2:mem:reactive-tests",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactive-tests" })
+class UserReactiveApiTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldCreateUserVisibleToBothStacks() {
+        long id = create("Reactive", "Created", "reactive-created@asdas.ru")
+                .statusCode(201)
+                .header("Location", matchesPattern(".*/api/reactive/users/\\d+"))
+                .body("version", is(0))
+                .extract().jsonPath().getLong("id");
+
+        given(spec).log().all()
+                .when().get("/api/reactive/users/" + id)
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("email", is("reactive-created@asdas.ru"));
+        given(spec).log().all()
+                .when().get("/api/users/" + id)
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("email", is("reactive-created@asdas.ru"));
+    }
+
+    @Test
+    public void shouldFilterSortAndPageUsers() {
+        create("Anna", "Paged", "reactive-paged-1@asdas.ru").statusCode(201);
+        create("Boris", "Paged", "reactive-paged-2@asdas.ru").statusCode(201);
+        create("Clara", "Paged", "reactive-paged-3@asdas.ru").statusCode(201);
+
+        given(spec).log().all()
+                .when().get("/api/reactive/users?lastName=Paged&sort=firstName,desc&size=2&page=0")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("_embedded.users.firstName", contains("Clara", "Boris"))
+                .body("page.totalElements", is(3))
+                .body("page.totalPages", is(2))
+                .body("page.number", is(0));
+    }
+
+    @Test
+    public void shouldUpdateAndDeleteUser() {
+        long id = create("Reactive", "Updated", "reactive-updated@asdas.ru")
+                .statusCode(201)
+                .extract().jsonPath().getLong("id");
+
+        given(spec).log().all()
+                .body(user("Reactive", "Renamed", "reactive-updated@asdas.ru"))
+                .contentType(ContentType.JSON)
+                .when().put("/api/reactive/users/" + id)
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("lastName", is("Renamed"))
+                .body("version", is(1));
+
+        given(spec).when().delete("/api/reactive/users/" + id).then().statusCode(204);
+        given(spec).log().all()
+                .when().get("/api/reactive/users/" + id)
+                .then().log().ifValidationFails()
+                .statusCode(404)
+                .body("status", is("NOT_FOUND"));
+    }
+
+    @Test
+    public void shouldReplaceOnlyTheVersionNamedByIfMatch() {
+        long id = create("Reactive", "Versioned", "reactive-versioned@asdas.ru")
+                .statusCode(201)
+                .header("ETag", is("\"0\""))
+                .extract().jsonPath().getLong("id");
+
+        given(spec).log().all()
+                .header("If-Match", "\"0\"")
+                .body(user("Reactive", "Renamed", "reactive-versioned@asdas.ru"))
+                .contentType(ContentType.JSON)
+                .when().put("/api/reactive/users/" + id)
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .header("ETag", is("\"1\""))
+                .body("version", is(1));
+        given(spec).log().all()
+                .header("If-Match", "\"0\"")
+                .body(user("Reactive", "Overwritten", "reactive-versioned@asdas.ru"))
+                .contentType(ContentType.JSON)
+                .when().put("/api/reactive/users/" + id)
+                .then().log().ifValidationFails()
+                .statusCode(412)
+                .body("status", is("PRECONDITION_FAILED"))
+                .body("debugMessage", is("User " + id + " is at version 1, not 0"));
+        given(spec).log().all()
+                .when().get("/api/reactive/users/" + id)
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .header("ETag", is("\"1\""))
+                .body("lastName", is("Renamed"));
+
+        // Spring Data REST would create the user
+        given(spec).log().all()
+                .body(user("Reactive", "Missing", "reactive-missing@asdas.ru"))
+                .contentType(ContentType.JSON)
+                .when().put("/api/reactive/users/" + (id + 1_000_000))
+                .then().log().ifValidationFails()
+                .statusCode(404);
+    }
+
+    @Test
+    public void shouldAnnounceWritesToSpringDataRestResource() {
+        int total = total();
+        String eTag = collectionETag();
+
+        long id = create("Reactive", "Announced", "reactive-announced@asdas.ru")
+                .statusCode(201)
+                .extract().jsonPath().getLong("id");
+        assertThat(total()).isEqualTo(total + 1);
+        String created = collectionETag();
+        assertThat(created).isNotEqualTo(eTag);
+
+        given(spec).body(user("Reactive", "Renamed", "reactive-announced@asdas.ru"))
+                .contentType(ContentType.JSON)
+                .when().put("/api/reactive/users/" + id)
+                .then().statusCode(200);
+        assertThat(collectionETag()).isNotEqualTo(created);
+
+        given(spec).when().delete("/api/reactive/users/" + id).then().statusCode(204);
+        assertThat(total()).isEqualTo(total);
+    }
+
+    @Test
+    public void shouldReportErrorsInErrorResponseFormat() {
+        create("R", "Invalid", "reactive-invalid@asdas.ru")
+                .statusCode(400)
+                .body("status", is("BAD_REQUEST"))
+                .body("subErrors.field", hasItem("firstName"));
+
+        create("Reactive", "Duplicate", "reactive-duplicate@asdas.ru").statusCode(201);
+        create("Reactive", "Duplicate", "reactive-duplicate@asdas.ru")
+                .statusCode(409)
+                .body("status", is("CONFLICT"));
+
+        given(spec).log().all()
+                .when().get("/api/reactive/users?sort=password")
+                .then().log().ifValidationFails()
+                .statusCode(400)
+                .body("message", is("Invalid value of parameter 'sort'"));
+    }
+
+    private int total() {
+        return given(spec).when().get("/api/users?size=1")
+                .then().statusCode(200)
+                .extract().jsonPath().getInt("page.totalElements");
+    }
+
+    private String collectionETag() {
+        return given(spec).when().get("/api/users?size=1")
+                .then().statusCode(200)
+                .extract().header("ETag");
+    }
+
+    private ValidatableResponse create(String firstName, String lastName, String email) {
+        return given(spec).log().all()
+                .body(user(firstName, lastName, email))
+                .contentType(ContentType.JSON)
+                .when().post("/api/reactive/users")
+                .then().log().ifValidationFails();
+    }
+
+    private static ObjectNode user(String firstName, String lastName, String email) {
+        ObjectNode objectNode = new ObjectMapper().createObjectNode();
+        objectNode.put("firstName", firstName);
+        objectNode.put("lastName", lastName);
+        objectNode.put("dayOfBirth", "2000-01-01");
+        objectNode.put("email", email);
+        return objectNode;
+    }
+}
@@ -0,0 +1,169 @@
+package com.nordigy.testrestapi;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.Decoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.UnknownFieldSet;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsStringIgnoringCase;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ResourceLock(SharedContexts.DEFAULT)
+class UserRepresentationTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldGzipLargeResponsesOnly() {
+        given(spec).log().all()
+                .when().get("/api/users?size=20")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .header("Content-Encoding", "gzip")
+                .header("Vary", containsStringIgnoringCase("Accept-Encoding"));
+
+        given(spec).log().all()
+                .when().get(anyUser())
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue());
+    }
+
+    @Test
+    public void shouldWeakenETagOfCompressedResponse() {
+        String eTag = given(spec).log().all()
+                .when().get("/api/users?size=20")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .header("Content-Encoding", "gzip")
+                .header("ETag", startsWith("W/\""))
+                .extract().header("ETag");
+
+        given(spec).log().all()
+                .header("If-None-Match", eTag)
+                .when().get("/api/users?size=20")
+                .then().log().ifValidationFails()
+                .statusCode(304);
+        given(spec).log().all()
+                .when().get(anyUser())
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .header("ETag", startsWith("\""));
+    }
+
+    @Test
+    public void shouldCompressWithBrotliWhenAccepted() throws IOException, InterruptedException {
+        assertThat(Brotli4jLoader.isAvailable()).isTrue();
+        String json = given(spec).when().get("/api/users?size=20").then().statusCode(200).extract().asString();
+
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users?size=20"))
+                        .header("Accept-Encoding", "gzip;q=0.8, br")
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("br");
+        byte[] body = Decoder.decompress(response.body()).getDecompressedData();
+        assertThat(new ObjectMapper().readTree(body)).isEqualTo(new ObjectMapper().readTree(json));
+    }
+
+    @Test
+    public void shouldNegotiateSmileAndCbor() throws IOException {
+        JsonNode smile = new ObjectMapper(new SmileFactory()).readTree(get("/api/users?size=5",
+                "application/x-jackson-smile").asByteArray());
+        assertThat(smile.path("_embedded").path("users")).hasSize(5);
+        assertThat(smile.path("_links").path("self").path("href").asText()).contains("/api/users");
+        assertThat(smile.path("page").path("size").asInt()).isEqualTo(5);
+
+        String user = anyUser();
+        JsonNode cbor = new ObjectMapper(new CBORFactory()).readTree(get(user, "application/cbor").asByteArray());
+        String email = given(spec).when().get(user).then().extract().path("email");
+        assertThat(cbor.path("email").asText()).isEqualTo(email);
+        assertThat(cbor.path("_links").path("self").path("href").asText()).endsWith(user);
+    }
+
+    @Test
+    public void shouldWriteUsersAsProtobuf() throws IOException {
+        String uri = anyUser();
+        String email = given(spec).when().get(uri).then().extract().path("email");
+        UnknownFieldSet user = UnknownFieldSet.parseFrom(get(uri, "application/x-protobuf").asByteArray());
+        assertThat(user.getField(1).getVarintList())
+                .containsExactly(Long.valueOf(uri.substring(uri.lastIndexOf('/') + 1)));
+        assertThat(user.getField(4).getLengthDelimitedList().get(0).toStringUtf8()).isEqualTo(email);
+
+        UnknownFieldSet page = UnknownFieldSet.parseFrom(get("/api/users?size=7&sort=id",
+                "application/x-protobuf").asByteArray());
+        assertThat(page.getField(1).getLengthDelimitedList()).hasSize(7);
+        UnknownFieldSet metadata = UnknownFieldSet.parseFrom(page.getField(2).getLengthDelimitedList().get(0));
+        assertThat(metadata.getField(1).getVarintList()).containsExactly(7L);
+    }
+
+    @Test
+    public void shouldExportInBinaryFormats() throws IOException {
+        int total = given(spec).when().get("/api/users").then().extract().path("page.totalElements");
+
+        CodedInputStream protobuf = CodedInputStream.newInstance(get("/api/users/export", "application/x-protobuf")
+                .asByteArray());
+        List<String> emails = new ArrayList<>();
+        while (!protobuf.isAtEnd()) {
+            UnknownFieldSet user = UnknownFieldSet.parseFrom(protobuf.readRawBytes(protobuf.readRawVarint32()));
+            emails.add(user.getField(4).getLengthDelimitedList().get(0).toStringUtf8());
+        }
+        assertThat(emails).hasSize(total).doesNotHaveDuplicates();
+
+        List<JsonNode> smile = new ObjectMapper(new SmileFactory())
+                .readerFor(JsonNode.class)
+                .<JsonNode>readValues(get("/api/users/export", "application/x-jackson-smile").asByteArray())
+                .readAll();
+        assertThat(smile).hasSize(total);
+        assertThat(smile.get(0).path("email").asText()).isEqualTo(emails.get(0));
+    }
+
+    private String anyUser() {
+        return "/api/users/" + given(spec).when().get("/api/users?size=1").then().extract()
+                .<Number>path("_embedded.users[0].id").longValue();
+    }
+
+    private Response get(String uri, String accept) {
+        return given(spec).log().all()
+                .accept(accept)
+                .when().get(uri)
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .contentType(accept)
+                .extract().response();
+    }
+}
@@ -0,0 +1,315 @@
+package com.nordigy.testrestapi;
+
+import com.nordigy.testrestapi.model.QUser;
+import com.nordigy.testrestapi.model.User;
+import com.nordigy.testrestapi.repository.CoalescingRepositoryInterceptor;
+import com.nordigy.testrestapi.repository.UserRepository;
+import com.querydsl.core.types.Predicate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.annotation.PostConstruct;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "spring.datasource.generate-unique-name=true", "app.coalescing.enabled=true" })
+class UserRequestCoalescingTests {
+
+    private static final int CALLERS = 8;
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final MeterRegistry callRegistry = new SimpleMeterRegistry();
+    private final CoalescingRepositoryInterceptor interceptor = new CoalescingRepositoryInterceptor(callRegistry,
+            Duration.ofSeconds(30));
+    private final AtomicInteger executions = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldShareOneCallBetweenConcurrentIdenticalReads() throws Exception {
+        Optional<User> user = Optional.of(User.builder().id(1L).firstName("Ivan").version(3L).build());
+        List<Future<Object>> reads = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            reads.add(call("GET", method("findById", Object.class), () -> user, 1L));
+        }
+        awaitCoalesced("findById", CALLERS - 1);
+        release.countDown();
+
+        List<User> users = new ArrayList<>();
+        for (Future<Object> read : reads) {
+            Object result = read.get(5, TimeUnit.SECONDS);
+            assertThat(result).isEqualTo(user);
+            users.add(((Optional<?>) result).map(User.class::cast).orElseThrow());
+        }
+        // the waiting callers render copies of their own
+        assertThat(users).filteredOn(copy -> copy == user.get()).hasSize(1);
+        Set<User> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(users);
+        assertThat(distinct).hasSize(CALLERS);
+        assertThat(executions).hasValue(1);
+        assertThat(count("findById", "executed")).isEqualTo(1);
+        assertThat(count("findById", "coalesced")).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    public void shouldShareOnlyCallsWithEqualArguments() throws Exception {
+        Method findAll = method("findAll", Predicate.class, Pageable.class);
+        List<Future<Object>> reads = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            // equal, but separately built predicates and pages
+            String firstName = i % 2 == 0 ? "Ivan" : "Petr";
+            reads.add(call("GET", findAll, () -> firstName, QUser.user.firstName.eq(firstName), PageRequest.of(0, 20)));
+        }
+        awaitCoalesced("findAll", CALLERS - 2);
+        release.countDown();
+
+        for (int i = 0; i < CALLERS; i++) {
+            assertThat(reads.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i % 2 == 0 ? "Ivan" : "Petr");
+        }
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    public void shouldPassTheFailureToEveryCaller() throws Exception {
+        List<Future<Object>> reads = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            reads.add(call("GET", method("findById", Object.class), () -> {
+                throw new IllegalStateException("Connection lost");
+            }, 1L));
+        }
+        awaitCoalesced("findById", CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> read : reads) {
+            assertThatThrownBy(() -> read.get(5, TimeUnit.SECONDS))
+                    .hasRootCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("Connection lost");
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    public void shouldCopyUsersOfASharedPage() throws Exception {
+        Method findAll = method("findAll", Pageable.class);
+        User user = User.builder().id(1L).firstName("Ivan").build();
+        Page<User> page = new PageImpl<>(List.of(user), PageRequest.of(0, 20), 1);
+        Future<Object> first = call("GET", findAll, () -> page, PageRequest.of(0, 20));
+        Future<Object> second = call("GET", findAll, () -> page, PageRequest.of(0, 20));
+        awaitCoalesced("findAll", 1);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(page);
+        Page<?> copy = (Page<?>) second.get(5, TimeUnit.SECONDS);
+        assertThat(copy.getTotalElements()).isEqualTo(1);
+        assertThat(copy.getContent()).hasSize(1);
+        assertThat(copy.getContent().get(0)).isEqualTo(user).isNotSameAs(user);
+    }
+
+    @Test
+    public void shouldRunTheQueryItselfAfterWaitTimeout() throws Exception {
+        CoalescingRepositoryInterceptor impatient = new CoalescingRepositoryInterceptor(callRegistry,
+                Duration.ofMillis(100));
+        Method findById = method("findById", Object.class);
+        Future<Object> stuck = call(impatient, "GET", findById, () -> "stuck", 1L);
+        awaitExecutions(1);
+        Future<Object> next = call(impatient, "GET", findById, () -> "next", 1L);
+        awaitExecutions(2);
+        release.countDown();
+
+        assertThat(stuck.get(5, TimeUnit.SECONDS)).isEqualTo("stuck");
+        assertThat(next.get(5, TimeUnit.SECONDS)).isEqualTo("next");
+        assertThat(count("findById", "coalesced")).isEqualTo(1);
+        assertThat(count("findById", "timed-out")).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotShareReadsOfWritingRequests() throws Exception {
+        List<Future<Object>> reads = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            reads.add(call("PUT", method("findById", Object.class), Optional::empty, 1L));
+        }
+        awaitExecutions(2);
+        release.countDown();
+
+        for (Future<Object> read : reads) {
+            assertThat(read.get(5, TimeUnit.SECONDS)).isEqualTo(Optional.empty());
+        }
+        assertThat(count("findById", "coalesced")).isZero();
+    }
+
+    @Test
+    public void shouldNotShareReadsStartedBeforeAWrite() throws Throwable {
+        Method findById = method("findById", Object.class);
+        Future<Object> before = call("GET", findById, () -> "before", 1L);
+        awaitExecutions(1);
+
+        User user = User.builder().id(1L).build();
+        assertThat(interceptor.invoke(invocation(method("save", Object.class), () -> user, user))).isSameAs(user);
+        Future<Object> after = call("GET", findById, () -> "after", 1L);
+        awaitExecutions(2);
+        release.countDown();
+
+        assertThat(before.get(5, TimeUnit.SECONDS)).isEqualTo("before");
+        assertThat(after.get(5, TimeUnit.SECONDS)).isEqualTo("after");
+        assertThat(count("findById", "coalesced")).isZero();
+    }
+
+    @Test
+    public void shouldAnswerConcurrentIdenticalRequestsLikeSequentialOnes() throws Exception {
+        List<String> paths = List.of("/api/users/1", "/api/users/2", "/api/users?firstName=Ivan&sort=id",
+                "/api/users?page=1&size=5&sort=id");
+        List<String> expected = new ArrayList<>();
+        for (String path : paths) {
+            expected.add(given(spec).when().get(path).then().statusCode(200).extract().asString());
+        }
+        double byId = reads("findById");
+        double pages = reads("findAll");
+
+        int requests = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> responses = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            String path = paths.get(i % paths.size());
+            responses.add(callers.submit(() -> {
+                start.await();
+                return given(spec).when().get(path).then().statusCode(200).extract().asString();
+            }));
+        }
+        start.countDown();
+
+        for (int i = 0; i < requests; i++) {
+            assertThat(responses.get(i).get(30, TimeUnit.SECONDS)).isEqualTo(expected.get(i % paths.size()));
+        }
+        // every request reads once, either itself or through a concurrent identical request
+        assertThat(reads("findById")).isEqualTo(byId + requests / 2);
+        assertThat(reads("findAll")).isEqualTo(pages + requests / 2);
+    }
+
+    private Future<Object> call(String httpMethod, Method method, Callable<Object> query, Object... arguments) {
+        return call(interceptor, httpMethod, method, query, arguments);
+    }
+
+    private Future<Object> call(CoalescingRepositoryInterceptor interceptor, String httpMethod, Method method,
+                                Callable<Object> query, Object... arguments) {
+        MethodInvocation invocation = invocation(method, () -> {
+            executions.incrementAndGet();
+            release.await();
+            return query.call();
+        }, arguments);
+        return callers.submit(() -> {
+            RequestContextHolder.setRequestAttributes(
+                    new ServletRequestAttributes(new MockHttpServletRequest(httpMethod, "/api/users")));
+            try {
+                return interceptor.invoke(invocation);
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+    }
+
+    private void awaitCoalesced(String method, int callers) throws InterruptedException {
+        for (int i = 0; i < 500 && count(method, "coalesced") < callers; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(count(method, "coalesced")).isEqualTo(callers);
+    }
+
+    private void awaitExecutions(int calls) throws InterruptedException {
+        for (int i = 0; i < 500 && executions.get() < calls; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(executions).hasValue(calls);
+    }
+
+    private double count(String method, String outcome) {
+        return callRegistry.get("users.repository.reads").tag("method", method).tag("outcome", outcome)
+                .counter().count();
+    }
+
+    private double reads(String method) {
+        return meterRegistry.get("users.repository.reads").tag("method", method).counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private static Method method(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return UserRepository.class.getMethod(name, parameterTypes);
+    }
+
+    private static MethodInvocation invocation(Method method, Callable<Object> proceed, Object... arguments) {
+        return new MethodInvocation() {
+            @Override
+            public Method getMethod() {
+                return method;
+            }
+
+            @Override
+            public Object[] getArguments() {
+                return arguments;
+            }
+
+            @Override
+            public Object proceed() throws Throwable {
+                return proceed.call();
+            }
+
+            @Override
+            public Object getThis() {
+                return null;
+            }
+
+            @Override
+            public AccessibleObject getStaticPart() {
+                return method;
+            }
+        };
+    }
+}
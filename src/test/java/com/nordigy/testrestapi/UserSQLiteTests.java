@@ -0,0 +1,145 @@
+package com.nordigy.testrestapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+@ActiveProfiles("sqlite")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserSQLiteTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void dataDir(DynamicPropertyRegistry registry) throws IOException {
+        String dataDir = Files.createTempDirectory("users-sqlite").toString();
+        registry.add("app.data-dir", () -> dataDir);
+    }
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldOpenDatabaseInWalMode() {
+        assertThat(jdbcTemplate.queryForObject("PRAGMA journal_mode", String.class)).isEqualTo("wal");
+        assertThat(jdbcTemplate.queryForObject("PRAGMA busy_timeout", Integer.class)).isEqualTo(5000);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user", Long.class)).isEqualTo(20);
+    }
+
+    @Test
+    public void shouldCreateUpdateAndDeleteUser() {
+        String location = create("Lite", "Created", "sqlite-created@asdas.ru")
+                .statusCode(201)
+                .extract().header("Location");
+
+        given(spec).log().all()
+                .when().get(location)
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("dayOfBirth", is("2000-01-01"))
+                .header("ETag", is("\"0\""));
+
+        given(spec).log().all()
+                .body(user("Lite", "Renamed", "sqlite-created@asdas.ru"))
+                .contentType(ContentType.JSON)
+                .when().put(location)
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("lastName", is("Renamed"))
+                .header("ETag", is("\"1\""));
+
+        given(spec).when().delete(location).then().statusCode(204);
+        given(spec).when().get(location).then().statusCode(404);
+    }
+
+    @Test
+    public void shouldFilterSortAndPageUsers() {
+        create("Anna", "Paged", "sqlite-paged-1@asdas.ru").statusCode(201);
+        create("Boris", "Paged", "sqlite-paged-2@asdas.ru").statusCode(201);
+        create("Clara", "Paged", "sqlite-paged-3@asdas.ru").statusCode(201);
+
+        given(spec).log().all()
+                .when().get("/api/users?lastName=Paged&sort=firstName,desc&size=2")
+                .then().log().ifValidationFails()
+                .statusCode(200)
+                .body("_embedded.users.firstName", contains("Clara", "Boris"))
+                .body("page.totalElements", is(3))
+                .body("page.totalPages", is(2));
+    }
+
+    @Test
+    public void shouldWaitForConcurrentWriters() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                String email = "sqlite-concurrent-" + i + "@asdas.ru";
+                statuses.add(executor.submit(() -> create("Lite", "Concurrent", email).extract().statusCode()));
+            }
+            for (Future<Integer> status : statuses) {
+                assertThat(status.get()).isEqualTo(201);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldReportDuplicateEmailAsConflict() {
+        create("Lite", "Duplicate", "sqlite-duplicate@asdas.ru").statusCode(201);
+        create("Lite", "Duplicate", "sqlite-duplicate@asdas.ru")
+                .statusCode(409)
+                .body("status", is("CONFLICT"));
+    }
+
+    private ValidatableResponse create(String firstName, String lastName, String email) {
+        return given(spec).log().all()
+                .body(user(firstName, lastName, email))
+                .contentType(ContentType.JSON)
+                .when().post("/api/users")
+                .then().log().ifValidationFails();
+    }
+
+    private static ObjectNode user(String firstName, String lastName, String email) {
+        ObjectNode objectNode = new ObjectMapper().createObjectNode();
+        objectNode.put("firstName", firstName);
+        objectNode.put("lastName", lastName);
+        objectNode.put("dayOfBirth", "2000-01-01");
+        objectNode.put("email", email);
+        return objectNode;
+    }
+}
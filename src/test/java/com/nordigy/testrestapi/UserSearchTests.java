@@ -0,0 +1,133 @@
+package com.nordigy.testrestapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.nordigy.testrestapi.repository.UserRepository;
+import com.nordigy.testrestapi.service.UserSearchIndex;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import javax.annotation.PostConstruct;
+import java.util.stream.StreamSupport;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ExtendWith(ResetDatabaseExtension.class)
+@ResourceLock(SharedContexts.DEFAULT)
+class UserSearchTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @BeforeEach
+    public void waitForIndex() throws InterruptedException {
+        for (int i = 0; i < 100 && !searchIndex.isReady(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(searchIndex.isReady()).isTrue();
+    }
+
+    @Test
+    public void shouldFindUsersLoadedAtStartup() {
+        // other tests of the shared context delete some of the demo users
+        long demoUsers = StreamSupport.stream(userRepository.findAll().spliterator(), false)
+                .filter(user -> user.getEmail().startsWith("workingemail-"))
+                .count();
+        assertThat(demoUsers).isGreaterThan(10);
+
+        assertThat(search("workingemail-").extract().jsonPath().getList("_embedded.users")).hasSize(10);
+        assertThat(given(spec).when().get("/api/users/search?q=workingemail-&size=100")
+                .then().statusCode(200)
+                .extract().jsonPath().getList("_embedded.users")).hasSize((int) demoUsers);
+    }
+
+    @Test
+    public void shouldRankNamesBeforeEmailsAndFollowWrites() {
+        String quinn = create("Quinn", "Searchwell", "quinn.sw@asdas.ru");
+        String quinton = create("Quinton", "Abbot", "qa@asdas.ru");
+        String bob = create("Bob", "Quinn", "bob.q@asdas.ru");
+        create("Zed", "Zed", "quinnmail@asdas.ru");
+
+        search("quinn").body("_embedded.users.email",
+                contains("quinn.sw@asdas.ru", "bob.q@asdas.ru", "quinnmail@asdas.ru"));
+        search("QUIN").body("_embedded.users.email",
+                contains("quinn.sw@asdas.ru", "bob.q@asdas.ru", "qa@asdas.ru", "quinnmail@asdas.ru"));
+        search("quin abb").body("_embedded.users.email", contains("qa@asdas.ru"));
+        given(spec).when().get("/api/users/search?q=quin&size=2")
+                .then().statusCode(200)
+                .body("_embedded.users.email", contains("quinn.sw@asdas.ru", "bob.q@asdas.ru"));
+
+        given(spec).body(user("Quinton", "Stone", "qa@asdas.ru"))
+                .contentType(ContentType.JSON)
+                .when().put(quinton)
+                .then().statusCode(200);
+        search("quin abb").body("_embedded.users", empty());
+        search("quin sto").body("_embedded.users.email", contains("qa@asdas.ru"));
+
+        given(spec).when().delete(quinn).then().statusCode(204);
+        given(spec).when().delete(bob).then().statusCode(204);
+        search("quinn").body("_embedded.users.email", contains("quinnmail@asdas.ru"));
+    }
+
+    @Test
+    public void shouldRejectBlankQuery() {
+        given(spec).log().all()
+                .when().get("/api/users/search?q= ")
+                .then().log().ifValidationFails()
+                .statusCode(400)
+                .body("message", is("Invalid value of parameter 'q'"));
+    }
+
+    private ValidatableResponse search(String query) {
+        return given(spec).log().all()
+                .queryParam("q", query)
+                .when().get("/api/users/search")
+                .then().log().ifValidationFails()
+                .statusCode(200);
+    }
+
+    private String create(String firstName, String lastName, String email) {
+        return given(spec).body(user(firstName, lastName, email))
+                .contentType(ContentType.JSON)
+                .when().post("/api/users")
+                .then().statusCode(201)
+                .extract().header("Location");
+    }
+
+    private static ObjectNode user(String firstName, String lastName, String email) {
+        ObjectNode objectNode = new ObjectMapper().createObjectNode();
+        objectNode.put("firstName", firstName);
+        objectNode.put("lastName", lastName);
+        objectNode.put("dayOfBirth", "2000-01-01");
+        objectNode.put("email", email);
+        return objectNode;
+    }
+}
@@ -0,0 +1,96 @@
+package com.nordigy.testrestapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.nordigy.testrestapi.config.SeedProperties;
+import com.nordigy.testrestapi.init.UserDataGenerator;
+import com.nordigy.testrestapi.model.User;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.validation.Validator;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "spring.datasource.generate-unique-name=true", "app.seed.count=5000",
+                "app.seed.batch-size=1000", "app.seed.parallelism=3" })
+class UserSeedTests {
+
+    private static final String ROWS = "SELECT id, first_name, last_name, email, day_of_birth FROM user ORDER BY id";
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SeedProperties seedProperties;
+
+    @Autowired
+    private Validator validator;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldSeedConfiguredNumberOfUsersWithUniqueEmailsAndIndexes() {
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT email) FROM user WHERE id <= 5000", Long.class))
+                .isEqualTo(5000);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE table_name = 'USER'", String.class))
+                .contains(User.LAST_NAME_FIRST_NAME_INDEX.toUpperCase(), User.FIRST_NAME_INDEX.toUpperCase(),
+                        User.DAY_OF_BIRTH_INDEX.toUpperCase());
+    }
+
+    @Test
+    public void shouldCreateUserAfterSeededOnes() {
+        ObjectNode objectNode = new ObjectMapper().createObjectNode();
+        objectNode.put("firstName", "Seeded");
+        objectNode.put("lastName", "After");
+        objectNode.put("dayOfBirth", "2000-01-01");
+        objectNode.put("email", "seeded-after@asdas.ru");
+
+        long id = given(spec).log().all()
+                .body(objectNode)
+                .contentType(ContentType.JSON)
+                .when().post("/api/users")
+                .then().log().ifValidationFails()
+                .statusCode(201)
+                .extract().jsonPath().getLong("id");
+
+        assertThat(id).isGreaterThan(5000);
+    }
+
+    @Test
+    public void shouldGenerateSameUsersForSameSeedWhateverModeAndParallelism() {
+        List<Map<String, Object>> seeded = jdbcTemplate.queryForList(ROWS + " LIMIT 5000");
+        jdbcTemplate.update("DELETE FROM user");
+
+        SeedProperties properties = new SeedProperties();
+        properties.setCount(seedProperties.getCount());
+        properties.setSeed(seedProperties.getSeed());
+        properties.setBatchSize(seedProperties.getBatchSize());
+        properties.setParallelism(1);
+        properties.setMode(SeedProperties.Mode.CSV);
+        new UserDataGenerator(jdbcTemplate, properties, validator).generate();
+
+        assertThat(jdbcTemplate.queryForList(ROWS)).isEqualTo(seeded);
+    }
+}
@@ -0,0 +1,127 @@
+package com.nordigy.testrestapi;
+
+import com.nordigy.testrestapi.config.SeedProperties;
+import com.nordigy.testrestapi.init.UserDataGenerator;
+import com.nordigy.testrestapi.model.User;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.data.rest.core.RepositoryConstraintViolationException;
+import org.springframework.data.rest.core.event.AfterCreateEvent;
+import org.springframework.data.rest.core.event.AfterSaveEvent;
+import org.springframework.data.rest.core.event.BeforeCreateEvent;
+import org.springframework.data.rest.core.event.BeforeSaveEvent;
+import org.springframework.data.rest.core.event.ValidatingRepositoryEventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import javax.annotation.PostConstruct;
+import javax.validation.ConstraintViolationException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.generate-unique-name=true")
+@ExtendWith(ResetDatabaseExtension.class)
+@ResourceLock(SharedContexts.UNIQUE_DATABASE)
+class UserValidationTests {
+
+    @LocalServerPort
+    private int port;
+
+    private RequestSpecification spec;
+
+    @SpyBean(name = "validator")
+    private LocalValidatorFactoryBean validator;
+
+    @Autowired
+    private ValidatingRepositoryEventListener validatingListener;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        spec = new RequestSpecBuilder().setPort(port).build();
+    }
+
+    @Test
+    public void shouldValidateOnlyOnConfiguredEvents() {
+        User invalid = User.builder()
+                .firstName("I")
+                .lastName("Invalid")
+                .email("not an email")
+                .dayOfBirth(LocalDate.of(2000, 1, 1))
+                .build();
+
+        assertThatThrownBy(() -> validatingListener.onApplicationEvent(new BeforeCreateEvent(invalid)))
+                .isInstanceOf(RepositoryConstraintViolationException.class);
+        assertThatThrownBy(() -> validatingListener.onApplicationEvent(new BeforeSaveEvent(invalid)))
+                .isInstanceOf(RepositoryConstraintViolationException.class);
+        validatingListener.onApplicationEvent(new AfterCreateEvent(invalid));
+        validatingListener.onApplicationEvent(new AfterSaveEvent(invalid));
+    }
+
+    @Test
+    public void shouldValidateOncePerWrite() {
+        clearInvocations(validator);
+
+        String user = given(spec).log().all()
+                .contentType(ContentType.JSON)
+                .body("{\"firstName\": \"Ivan\", \"lastName\": \"Validov\", \"dayOfBirth\": \"2000-01-01\","
+                        + " \"email\": \"ivan.validov@asdas.ru\"}")
+                .when().post("/api/users")
+                .then().log().ifValidationFails()
+                .statusCode(201)
+                .extract().header("Location");
+        verify(validator, times(1)).validate(any(User.class), any(Errors.class));
+
+        given(spec).log().all()
+                .contentType(ContentType.JSON)
+                .body("{\"lastName\": \"Validova\"}")
+                .when().patch(user)
+                .then().log().ifValidationFails()
+                .statusCode(200);
+        verify(validator, times(2)).validate(any(User.class), any(Errors.class));
+    }
+
+    @Test
+    public void shouldRefuseSeedPropertiesProducingInvalidUsers() {
+        long users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user", Long.class);
+        SeedProperties properties = new SeedProperties();
+        properties.setCount(100);
+        properties.setLastNames(List.of("Li", "Ivanov-Petrov-Sidorov"));
+
+        assertThatThrownBy(() -> new UserDataGenerator(jdbcTemplate, properties, validator).generate())
+                .isInstanceOf(ConstraintViolationException.class)
+                .hasMessageContaining("lastName");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user", Long.class)).isEqualTo(users);
+    }
+
+    @Test
+    public void shouldFailStartupOnUnknownEvent() {
+        assertThatThrownBy(() -> new SpringApplicationBuilder(TestRestApiApplication.class)
+                .properties("server.port=0", "spring.datasource.generate-unique-name=true")
+                .run("--app.validation.events=beforeCreate,beforeSafe").close())
+                .hasRootCauseInstanceOf(IllegalArgumentException.class)
+                .hasStackTraceContaining("Unknown repository event 'beforeSafe' in app.validation.events");
+    }
+}